@@ -0,0 +1,101 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Runs jobs concurrently while respecting their dependencies. Rows are
+ * written in submission order once they are complete.
+ */
+public class JobScheduler implements AutoCloseable {
+	private final ExecutorService executor;
+	private final List<CompletableFuture<Runnable>> rows = new ArrayList<>();
+
+	public JobScheduler(int workerCount) {
+		executor = Executors.newFixedThreadPool(workerCount);
+	}
+
+	/**
+	 * Returns how many workers fit into the memory budget (0 for no limit), but
+	 * at least one.
+	 */
+	public static int getWorkerCount(int workers, long memoryBudget, long workerMemory) {
+		int workerCount = Math.max(1, workers);
+		if (memoryBudget > 0 && workerMemory > 0) {
+			workerCount = (int) Math.min(workerCount, memoryBudget / workerMemory);
+		}
+		return Math.max(1, workerCount);
+	}
+
+	/**
+	 * Parses a memory size such as 12g, as given to -Xmx.
+	 */
+	public static long parseMemory(String memory) {
+		if (memory == null || memory.isBlank()) {
+			return 0;
+		}
+		memory = memory.trim().toLowerCase();
+		final char unit = memory.charAt(memory.length() - 1);
+		final String number = Character.isDigit(unit) ? memory : memory.substring(0, memory.length() - 1);
+		final long size = Long.parseLong(number);
+		switch (unit) {
+		case 'k':
+			return size << 10;
+		case 'm':
+			return size << 20;
+		case 'g':
+			return size << 30;
+		case 't':
+			return size << 40;
+		default:
+			return size;
+		}
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<T> job) {
+		return CompletableFuture.supplyAsync(job, executor);
+	}
+
+	public <T, R> CompletableFuture<R> submitAfter(CompletableFuture<T> dependency, Function<T, R> job) {
+		return dependency.thenApplyAsync(job, executor);
+	}
+
+	public void addRow(CompletableFuture<Runnable> row) {
+		rows.add(row);
+	}
+
+	public void writeRows() {
+		for (CompletableFuture<Runnable> row : rows) {
+			row.join().run();
+		}
+		rows.clear();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,70 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin;
+
+import java.lang.management.*;
+import java.util.*;
+
+import javax.management.*;
+
+/**
+ * Calls a handler when the heap is still filled beyond a given fraction
+ * after a garbage collection.
+ */
+public class MemoryWatchdog implements AutoCloseable {
+	private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+	private final NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+	private final NotificationListener listener;
+
+	public MemoryWatchdog(double limit, Runnable handler) {
+		listener = (notification, handback) -> {
+			if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+				handler.run();
+			}
+		};
+		if (limit > 0) {
+			for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				final long max = pool.getUsage().getMax();
+				if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+					&& pool.isCollectionUsageThresholdSupported() && max > 0) {
+					pool.setCollectionUsageThreshold((long) (max * limit));
+					pools.add(pool);
+				}
+			}
+			emitter.addNotificationListener(listener, null, null);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (!pools.isEmpty()) {
+			try {
+				emitter.removeNotificationListener(listener);
+			} catch (final ListenerNotFoundException e) {
+			}
+			for (final MemoryPoolMXBean pool : pools) {
+				pool.setCollectionUsageThreshold(0);
+			}
+		}
+	}
+}
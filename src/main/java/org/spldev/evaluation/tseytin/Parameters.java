@@ -34,7 +34,19 @@ public class Parameters implements Serializable {
 	public int iteration;
 	public String tempPath;
 	public long timeout;
+	public long cancelGracePeriod = 10000;
 	public Analysis transformation;
+	public String cachePath;
+	public boolean retimeTransformations = true;
+	public boolean compressCNF;
+	public boolean preprocessCNF;
+	public int threads;
+	public long hybridClauseLimit = 16;
+	public long distribClauseLimit;
+	public double distribMemoryLimit;
+	public long modelCountCacheSize = 100_000_000;
+	public double approxEpsilon = 0.8;
+	public double approxDelta = 0.2;
 
 	public Parameters(String system, String rootPath, String modelPath, int iteration, String tempPath,
 		long timeout) {
@@ -22,6 +22,7 @@
  */
 package org.spldev.evaluation.tseytin;
 
+import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 
@@ -32,6 +33,11 @@ import de.ovgu.featureide.fm.core.base.impl.*;
 import de.ovgu.featureide.fm.core.init.*;
 
 public class Runner {
+	public static final String RESULT_PREFIX = "result: ";
+	public static final String DONE_MARKER = "done";
+	public static final String HEARTBEAT_MARKER = "alive";
+	public static final String WORKER_FLAG = "--worker";
+
 	public static void main(String[] args) throws Exception {
 		if (args.length != 1) {
 			throw new RuntimeException("invalid usage");
@@ -39,9 +45,41 @@ public class Runner {
 		ExtensionLoader.load();
 		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
 		FMFormatManager.getInstance().addExtension(new KConfigReaderFormat());
-		Analysis analysis = Analysis.read(Paths.get(args[0]));
+		if (WORKER_FLAG.equals(args[0])) {
+			work();
+		} else {
+			run(Analysis.read(Paths.get(args[0])));
+		}
+	}
+
+	/**
+	 * Runs encoded analyses read from standard input until it is closed.
+	 */
+	private static void work() throws IOException {
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			System.gc();
+			try {
+				run(Analysis.decode(line.trim()));
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+			System.out.println(DONE_MARKER);
+			System.out.flush();
+		}
+	}
+
+	private static void run(Analysis analysis) throws Exception {
 		Objects.requireNonNull(analysis);
 		System.out.println(analysis);
-		analysis.run();
+		try {
+			analysis.run();
+		} finally {
+			Analysis.releaseShared();
+		}
 	}
 }
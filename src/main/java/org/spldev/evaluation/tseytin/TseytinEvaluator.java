@@ -22,11 +22,14 @@
  */
 package org.spldev.evaluation.tseytin;
 
+import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
 
 import org.spldev.evaluation.*;
-import org.spldev.evaluation.process.*;
+import org.spldev.evaluation.properties.*;
 import org.spldev.evaluation.tseytin.analysis.*;
 import org.spldev.evaluation.util.*;
 import org.spldev.formula.io.*;
@@ -37,8 +40,48 @@ import org.spldev.util.data.*;
 import org.spldev.util.io.csv.*;
 
 public class TseytinEvaluator extends Evaluator {
+	protected static final Property<Long> cancelGracePeriodProperty = new Property<>("cancelGracePeriod",
+		Property.LongConverter, 10000L);
+	protected static final Property<Integer> workerJobsProperty = new Property<>("workerJobs",
+		Property.IntegerConverter, 100);
+	protected static final Property<String> workerMemoryProperty = new Property<>("workerMemory",
+		Property.StringConverter, "12g");
+	protected static final Property<Integer> workersProperty = new Property<>("workers",
+		Property.IntegerConverter, 1);
+	protected static final Property<String> memoryBudgetProperty = new Property<>("memoryBudget",
+		Property.StringConverter, "");
+	protected static final Property<Boolean> cleanTempFilesProperty = new Property<>("cleanTempFiles",
+		Property.BooleanConverter, true);
+	// the cache is kept across runs and not removed by cleanTempFiles, so it is opt-in
+	protected static final Property<Boolean> cacheTransformationsProperty = new Property<>(
+		"cacheTransformations", Property.BooleanConverter, false);
+	protected static final Property<Boolean> retimeTransformationsProperty = new Property<>(
+		"retimeTransformations", Property.BooleanConverter, true);
+	protected static final Property<Boolean> compressCNFProperty = new Property<>("compressCNF",
+		Property.BooleanConverter, false);
+	protected static final Property<Boolean> preprocessCNFProperty = new Property<>("preprocessCNF",
+		Property.BooleanConverter, false);
+	protected static final Property<Integer> threadsProperty = new Property<>("threads",
+		Property.IntegerConverter, 0);
+	protected static final Property<Long> hybridClauseLimitProperty = new Property<>("hybridClauseLimit",
+		Property.LongConverter, 16L);
+	protected static final Property<Long> distribClauseLimitProperty = new Property<>("distribClauseLimit",
+		Property.LongConverter, 100_000_000L);
+	protected static final Property<Double> distribMemoryLimitProperty = new Property<>("distribMemoryLimit",
+		Property.DoubleConverter, 0.8);
+	protected static final Property<Long> modelCountCacheSizeProperty = new Property<>("modelCountCacheSize",
+		Property.LongConverter, 100_000_000L);
+	protected static final Property<Double> approxEpsilonProperty = new Property<>("approxEpsilon",
+		Property.DoubleConverter, 0.8);
+	protected static final Property<Double> approxDeltaProperty = new Property<>("approxDelta",
+		Property.DoubleConverter, 0.2);
+	protected static final Property<Boolean> skipFailedTransformationsProperty = new Property<>(
+		"skipFailedTransformations", Property.BooleanConverter, true);
+	protected static final Property<Boolean> batchAnalysesProperty = new Property<>("batchAnalyses",
+		Property.BooleanConverter, true);
+
 	protected CSVWriter writer, systemWriter;
-	protected ProcessRunner processRunner;
+	protected WorkerPool workerPool;
 
 	@Override
 	public String getName() {
@@ -69,68 +112,196 @@ public class TseytinEvaluator extends Evaluator {
 		final ModelReader<Formula> fmReader = new ModelReader<>();
 		fmReader.setPathToFiles(config.modelPath);
 		fmReader.setFormatSupplier(FormulaFormatManager.getInstance());
-		processRunner = new ProcessRunner();
-		processRunner.setTimeout(config.timeout.getValue() * 2);
+		final int workerCount = JobScheduler.getWorkerCount(workersProperty.getValue(),
+			JobScheduler.parseMemory(memoryBudgetProperty.getValue()),
+			JobScheduler.parseMemory(workerMemoryProperty.getValue()));
+		workerPool = new WorkerPool(workerMemoryProperty.getValue(),
+			workerJobsProperty.getValue(), config.timeout.getValue() * 2);
+		try (JobScheduler scheduler = new JobScheduler(workerCount)) {
+			scheduleSystems(fmReader, scheduler);
+			scheduler.writeRows();
+		} finally {
+			workerPool.close();
+		}
+	}
+
+	private void scheduleSystems(ModelReader<Formula> fmReader, JobScheduler scheduler) {
+		final Map<String, CompletableFuture<List<String>>> previousTransformations = new HashMap<>();
 		for (systemIteration = 0; systemIteration < config.systemIterations.getValue(); systemIteration++) {
 			for (systemIndex = 0; systemIndex < config.systemNames.size(); systemIndex++) {
+				final int id = systemIndex;
+				final int iteration = systemIteration;
 				String modelPath = config.systemNames.get(systemIndex);
 				String system = modelPath
 					.replace(".kconfigreader.model", "")
 					.replace(".xml", "");
 				if (systemIteration == 0) {
-					Formula formula = fmReader.read(modelPath).orElseThrow(p -> new RuntimeException(
-						"no feature model"));
-					writeCSV(systemWriter, systemWriter -> {
-						systemWriter.addValue(systemIndex);
-						systemWriter.addValue(system);
-						systemWriter.addValue(VariableMap.fromExpression(formula).size());
-						systemWriter.addValue(NormalForms.simplifyForNF(formula).getChildren().size());
-					});
+					scheduler.addRow(scheduler.submit(() -> {
+						Formula formula;
+						synchronized (fmReader) {
+							formula = fmReader.read(modelPath).orElseThrow(p -> new RuntimeException(
+								"no feature model"));
+						}
+						int features = VariableMap.fromExpression(formula).size();
+						int constraints = NormalForms.simplifyForNF(formula).getChildren().size();
+						return () -> writeCSV(systemWriter, systemWriter -> {
+							systemWriter.addValue(id);
+							systemWriter.addValue(system);
+							systemWriter.addValue(features);
+							systemWriter.addValue(constraints);
+						});
+					}));
 				}
-				Parameters parameters = new Parameters(
-					system, config.modelPath.toString(),
-					modelPath, systemIteration, config.tempPath.toString(), config.timeout.getValue());
 				tabFormatter.setTabLevel(0);
 				logSystem();
-				tabFormatter.setTabLevel(1);
-				Arrays.stream(Analysis.transformations).forEach(transformation -> {
-					List<String> results = evaluateForParameters(parameters, transformation);
-					writeCSV(writer, writer -> {
-						writer.addValue(systemIndex);
-						writer.addValue(systemIteration);
+				Arrays.stream(Analysis.transformations).forEach(transformationPrototype -> {
+					Analysis transformation = newAnalysis(transformationPrototype.getClass());
+					Workspace workspace = createWorkspace(system, transformation, iteration);
+					Parameters parameters = new Parameters(
+						system, config.modelPath.toString(),
+						modelPath, iteration, workspace.getPath().toString(), config.timeout.getValue());
+					if (cacheTransformationsProperty.getValue()) {
+						parameters.cachePath = config.tempPath.resolve("cache").toString();
+						parameters.retimeTransformations = retimeTransformationsProperty.getValue();
+					}
+					parameters.compressCNF = compressCNFProperty.getValue();
+					parameters.preprocessCNF = preprocessCNFProperty.getValue();
+					parameters.threads = threadsProperty.getValue();
+					parameters.cancelGracePeriod = cancelGracePeriodProperty.getValue();
+					parameters.hybridClauseLimit = hybridClauseLimitProperty.getValue();
+					parameters.distribClauseLimit = distribClauseLimitProperty.getValue();
+					parameters.distribMemoryLimit = distribMemoryLimitProperty.getValue();
+					parameters.modelCountCacheSize = modelCountCacheSizeProperty.getValue();
+					parameters.approxEpsilon = approxEpsilonProperty.getValue();
+					parameters.approxDelta = approxDeltaProperty.getValue();
+					transformation.setParameters(parameters);
+					parameters.transformation = transformation;
+					final String key = system + "_" + transformation;
+					CompletableFuture<List<String>> transformationResults = scheduleTransformation(scheduler,
+						parameters, previousTransformations.get(key));
+					if (skipFailedTransformationsProperty.getValue()) {
+						previousTransformations.put(key, transformationResults);
+					}
+					CompletableFuture<List<String>> results = scheduleAnalyses(scheduler, parameters, workspace,
+						transformationResults);
+					scheduler.addRow(results.thenApply(rowResults -> () -> writeCSV(writer, writer -> {
+						writer.addValue(id);
+						writer.addValue(iteration);
 						writer.addValue(transformation.toString());
-						results.forEach(writer::addValue);
-					});
+						rowResults.forEach(writer::addValue);
+					})));
 				});
 			}
 		}
 	}
 
-	private List<String> evaluateForParameters(Parameters parameters, Analysis transformation) {
-		tabFormatter.setTabLevel(2);
-		List<String> results = new ArrayList<>();
-		Analysis.analyses.stream().map(Pair::getKey).forEach(analysisClass -> {
-			try {
-				Analysis analysis = (Analysis) analysisClass.getConstructor().newInstance();
-				results.addAll(run(parameters, analysis, transformation));
-			} catch (InstantiationException | IllegalAccessException | InvocationTargetException
-				| NoSuchMethodException e) {
-				e.printStackTrace();
+	private Workspace createWorkspace(String system, Analysis transformation, int iteration) {
+		try {
+			return new Workspace(config.tempPath.resolve(String.format("%s_%s_%d",
+				system.replaceAll("[./]", "_"), transformation, iteration)),
+				Analysis.analyses.size(), cleanTempFilesProperty.getValue());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Skips transformations that failed on the same system in the previous
+	 * iteration.
+	 */
+	private CompletableFuture<List<String>> scheduleTransformation(JobScheduler scheduler, Parameters parameters,
+		CompletableFuture<List<String>> previousTransformation) {
+		return previousTransformation == null ? scheduler.submit(() -> run(parameters, Transform.class))
+			: scheduler.submitAfter(previousTransformation, previousResults -> hasFailed(previousResults)
+				? getMissingResults(Transform.class)
+				: run(parameters, Transform.class));
+	}
+
+	private CompletableFuture<List<String>> scheduleAnalyses(JobScheduler scheduler, Parameters parameters,
+		Workspace workspace, CompletableFuture<List<String>> transformationResults) {
+		final boolean skipFailedTransformations = skipFailedTransformationsProperty.getValue();
+		final List<Class<?>> batchedClasses = batchAnalysesProperty.getValue()
+			? Analysis.analyses.stream()
+				.map(Pair::getKey)
+				.filter(analysisClass -> analysisClass != Transform.class)
+				.filter(analysisClass -> newAnalysis(analysisClass).isBatchable())
+				.collect(Collectors.toList())
+			: Collections.emptyList();
+		CompletableFuture<Map<Class<?>, List<String>>> batchResults = batchedClasses.isEmpty() ? null
+			: scheduler.submitAfter(transformationResults, results -> skipFailedTransformations
+				&& hasFailed(results)
+					? batchedClasses.stream().collect(Collectors.toMap(analysisClass -> analysisClass,
+						this::getMissingResults))
+					: runBatch(parameters, batchedClasses));
+		List<CompletableFuture<List<String>>> analysisResults = Analysis.analyses.stream()
+			.map(Pair::getKey)
+			.map(analysisClass -> analysisClass == Transform.class ? transformationResults
+				: batchedClasses.contains(analysisClass)
+					? batchResults.thenApply(results -> results.get(analysisClass))
+					: scheduler.submitAfter(transformationResults, results -> skipFailedTransformations
+						&& hasFailed(results) ? getMissingResults(analysisClass) : run(parameters, analysisClass)))
+			.map(result -> result.whenComplete((ignored, e) -> workspace.release()))
+			.collect(Collectors.toList());
+		return CompletableFuture.allOf(analysisResults.toArray(new CompletableFuture[0]))
+			.thenApply(ignored -> analysisResults.stream()
+				.flatMap(result -> result.join().stream())
+				.collect(Collectors.toList()));
+	}
+
+	private Analysis newAnalysis(Class<?> analysisClass) {
+		try {
+			return (Analysis) analysisClass.getConstructor().newInstance();
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException
+			| NoSuchMethodException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static boolean hasFailed(List<String> transformationResults) {
+		return transformationResults.isEmpty() || !transformationResults.get(0).matches("\\d+");
+	}
+
+	private List<String> getMissingResults(Class<?> analysisClass) {
+		return new ArrayList<>(Collections.nCopies(newAnalysis(analysisClass).getResultColumns().length, "NA"));
+	}
+
+	/**
+	 * If a worker dies, the remaining analyses are run in a new batch.
+	 */
+	private Map<Class<?>, List<String>> runBatch(Parameters parameters, List<Class<?>> analysisClasses) {
+		final Map<Class<?>, List<String>> results = new HashMap<>();
+		int next = 0;
+		while (next < analysisClasses.size()) {
+			final Batch batch = new Batch(analysisClasses.subList(next, analysisClasses.size()).stream()
+				.map(this::newAnalysis)
+				.collect(Collectors.toList()));
+			batch.setParameters(parameters);
+			final List<String> batchResults = workerPool.run(batch);
+			int offset = 0;
+			for (final Analysis analysis : batch.getAnalyses()) {
+				final int columns = analysis.getResultColumns().length;
+				final List<String> analysisResults = new ArrayList<>(batchResults.subList(Math.min(offset,
+					batchResults.size()), Math.min(offset + columns, batchResults.size())));
+				final boolean complete = analysisResults.size() == columns;
+				while (analysisResults.size() < columns)
+					analysisResults.add("NA");
+				results.put(analysis.getClass(), analysisResults);
+				offset += columns;
+				next++;
+				if (!complete) {
+					break;
+				}
 			}
-		});
+		}
 		return results;
 	}
 
-	private List<String> run(Parameters parameters, Analysis analysis, Analysis transformation) {
+	private List<String> run(Parameters parameters, Class<?> analysisClass) {
+		Analysis analysis = newAnalysis(analysisClass);
 		analysis.setParameters(parameters);
-		transformation.setParameters(parameters);
-		Wrapper wrapper = new Wrapper(analysis);
-		wrapper.setTransformation(transformation);
-		tabFormatter.incTabLevel();
-		List<String> results = processRunner.run(wrapper).getResult();
-		while (results.size() < wrapper.analysis.getResultColumns().length)
+		List<String> results = new ArrayList<>(workerPool.run(analysis));
+		while (results.size() < analysis.getResultColumns().length)
 			results.add("NA");
-		tabFormatter.decTabLevel();
 		return results;
 	}
 }
@@ -0,0 +1,160 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.spldev.evaluation.tseytin.analysis.Analysis;
+
+/**
+ * Pool of warm worker JVMs. A worker is discarded when it dies or misses the
+ * deadline, which is reset by each heartbeat.
+ */
+public class WorkerPool implements AutoCloseable {
+	private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+	private final String maxMemory;
+	private final int maxJobs;
+	private final long timeout;
+
+	public WorkerPool(String maxMemory, int maxJobs, long timeout) {
+		this.maxMemory = maxMemory;
+		this.maxJobs = Math.max(1, maxJobs);
+		this.timeout = timeout;
+	}
+
+	public List<String> run(Analysis analysis) {
+		final List<String> results = new ArrayList<>();
+		Worker worker = null;
+		boolean healthy = false;
+		try {
+			worker = acquire();
+			healthy = worker.run(analysis, results);
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			if (worker != null) {
+				release(worker, healthy);
+			}
+		}
+		return results;
+	}
+
+	private synchronized Worker acquire() throws IOException {
+		final Worker worker = idleWorkers.poll();
+		return worker != null ? worker : new Worker();
+	}
+
+	private synchronized void release(Worker worker, boolean healthy) {
+		if (healthy && worker.jobCount < maxJobs) {
+			idleWorkers.push(worker);
+		} else {
+			worker.destroy();
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		idleWorkers.forEach(Worker::destroy);
+		idleWorkers.clear();
+	}
+
+	private class Worker {
+		private final Process process;
+		private final BufferedWriter input;
+		private final BlockingQueue<Optional<String>> output = new LinkedBlockingQueue<>();
+		private int jobCount;
+
+		Worker() throws IOException {
+			process = new ProcessBuilder(
+				"java",
+				"-da",
+				"-Xmx" + maxMemory,
+				"-XX:+ExitOnOutOfMemoryError",
+				"-cp",
+				System.getProperty("java.class.path"),
+				Runner.class.getCanonicalName(),
+				Runner.WORKER_FLAG)
+					.redirectError(ProcessBuilder.Redirect.INHERIT)
+					.start();
+			input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+			final Thread reader = new Thread(() -> {
+				try (BufferedReader processOutput = new BufferedReader(new InputStreamReader(process
+					.getInputStream()))) {
+					String line;
+					while ((line = processOutput.readLine()) != null) {
+						output.add(Optional.of(line));
+					}
+				} catch (IOException e) {
+				} finally {
+					output.add(Optional.empty());
+				}
+			});
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		boolean run(Analysis analysis, List<String> results) throws IOException, InterruptedException {
+			final String job = analysis.encode();
+			jobCount++;
+			try {
+				input.write(job);
+				input.newLine();
+				input.flush();
+			} catch (IOException e) {
+				return false;
+			}
+			long deadline = System.currentTimeMillis() + timeout;
+			while (true) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				final Optional<String> line = output.poll(remaining, TimeUnit.MILLISECONDS);
+				if (line == null || line.isEmpty()) {
+					return false;
+				}
+				if (line.get().equals(Runner.DONE_MARKER)) {
+					return true;
+				}
+				if (line.get().equals(Runner.HEARTBEAT_MARKER)) {
+					deadline = System.currentTimeMillis() + timeout;
+				}
+				if (line.get().startsWith(Runner.RESULT_PREFIX)) {
+					results.add(line.get().replace(Runner.RESULT_PREFIX, "").trim());
+				}
+			}
+		}
+
+		void destroy() {
+			try {
+				input.close();
+			} catch (IOException e) {
+			}
+			process.destroyForcibly();
+		}
+	}
+}
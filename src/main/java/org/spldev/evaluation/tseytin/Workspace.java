@@ -0,0 +1,71 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Temporary directory of one transformation and its analyses, deleted once
+ * all of them have released it.
+ */
+public class Workspace {
+	private final Path path;
+	private final AtomicInteger references;
+	private final boolean cleanUp;
+
+	public Workspace(Path path, int references, boolean cleanUp) throws IOException {
+		this.path = path;
+		this.references = new AtomicInteger(references);
+		this.cleanUp = cleanUp;
+		Files.createDirectories(path);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public void release() {
+		if (references.decrementAndGet() == 0 && cleanUp) {
+			delete();
+		}
+	}
+
+	private void delete() {
+		try {
+			Files.walk(path)
+				.sorted(Comparator.reverseOrder())
+				.forEach(file -> {
+					try {
+						Files.deleteIfExists(file);
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				});
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -23,69 +23,97 @@
 package org.spldev.evaluation.tseytin.analysis;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
 import org.spldev.analysis.solver.*;
+import org.spldev.evaluation.tseytin.MemoryWatchdog;
 import org.spldev.evaluation.tseytin.Parameters;
-import org.spldev.evaluation.tseytin.Wrapper;
+import org.spldev.evaluation.tseytin.Runner;
+import org.spldev.evaluation.tseytin.cnf.*;
 import org.spldev.evaluation.util.ModelReader;
 import org.spldev.formula.ModelRepresentation;
 import org.spldev.formula.io.*;
-import org.spldev.formula.io.dimacs.*;
 import org.spldev.formula.structure.*;
 import org.spldev.formula.structure.atomic.literal.*;
 import org.spldev.formula.structure.transform.*;
 import org.spldev.util.data.Pair;
-import org.spldev.util.io.FileHandler;
 import org.spldev.util.job.Executor;
 import org.spldev.util.logging.Logger;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.text.Collator;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class Analysis implements Serializable {
 	private static final long serialVersionUID = 1L;
+	public static final String TIMEOUT_MARKER = "TIMEOUT";
+	public static final String CACHED_MARKER = "CACHED";
 
 	public static Analysis[] transformations = new Analysis[] {
 		new Transform.TseytinZ3(),
 		new Transform.TseytinSPLDev(),
 		new Transform.DistribFeatureIDE(),
-		new Transform.DistribSPLDev()
+		new Transform.DistribSPLDev(),
+		new Transform.TseytinArena(),
+		new Transform.TseytinArenaHashed(),
+		new Transform.TseytinArenaParallel(),
+		new Transform.PlaistedGreenbaum(),
+		new Transform.Hybrid()
 	};
 	public static List<Pair<Class<?>, String[]>> analyses = new ArrayList<>();
 
 	static {
-		analyses.add(new Pair<>(Transform.class, new String[] { "TransformTime", "Variables", "Clauses" }));
+		analyses.add(new Pair<>(Transform.class, new String[] { "TransformTime", "Variables", "Clauses",
+			"PreprocessTime", "PreprocessVariables", "PreprocessClauses" }));
 		analyses.add(new Pair<>(SatFeatureIDE.class, new String[] { "SatTimeF", "SatF" }));
 		analyses.add(new Pair<>(SatSPLDev.class, new String[] { "SatTimeS", "SatS" }));
 		analyses.add(new Pair<>(CoreDeadFeatureIDE.class, new String[] { "CoreDeadTimeF", "CoreDeadHashF",
 			"CoreDeadF" }));
 		analyses.add(new Pair<>(CoreDeadSPLDev.class, new String[] { "CoreDeadTimeS", "CoreDeadHashS", "CoreDeadS" }));
+		analyses.add(new Pair<>(CoreDeadParallelFeatureIDE.class, new String[] { "CoreDeadTimeP", "CoreDeadHashP",
+			"CoreDeadP" }));
 		analyses.add(new Pair<>(AtomicSetFeatureIDE.class, new String[] { "AtomicSetTimeF", "AtomicSetHashF",
 			"AtomicSetF" }));
 		analyses.add(new Pair<>(AtomicSetSPLDev.class, new String[] { "AtomicSetTimeS", "AtomicSetHashS",
 			"AtomicSetS" }));
+		analyses.add(new Pair<>(AtomicSetParallelFeatureIDE.class, new String[] { "AtomicSetTimeP", "AtomicSetHashP",
+			"AtomicSetP" }));
 		analyses.add(new Pair<>(SharpSatSharpSat.class, new String[] { "SharpSatTimeS", "SharpSatHashS",
 			"SharpSatS" }));
 		analyses.add(new Pair<>(SharpSatCountAntom.class, new String[] { "SharpSatTimeC", "SharpSatHashC",
 			"SharpSatC" }));
+		analyses.add(new Pair<>(SharpSatJava.class, new String[] { "SharpSatTimeJ", "SharpSatHashJ",
+			"SharpSatJ" }));
+		analyses.add(new Pair<>(ApproxSharpSatFeatureIDE.class, new String[] { "ApproxSharpSatTimeF",
+			"ApproxSharpSatF" }));
+		analyses.add(new Pair<>(DDNNFCompilation.class, new String[] { "CompileTimeD", "SharpSatTimeD",
+			"SharpSatHashD", "SharpSatD", "CoreDeadTimeD", "CoreDeadHashD", "CoreDeadD", "AtomicSetTimeD",
+			"AtomicSetHashD", "AtomicSetD" }));
 	}
 
 	public Parameters parameters;
+	transient int printedResults;
+	private static final Map<String, Object> sharedData = new HashMap<>();
 
 	public void setParameters(Parameters parameters) {
 		this.parameters = parameters;
 	}
 
+	/**
+	 * If the analysis timed out, timeNeeded is null and the payload is partial.
+	 */
 	static class Result<T> {
 		Long timeNeeded;
 		T payload;
@@ -111,6 +139,26 @@ public abstract class Analysis implements Serializable {
 		return null;
 	}
 
+	public static Analysis decode(String encodedAnalysis) {
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(Base64
+			.getDecoder().decode(encodedAnalysis)))) {
+			return (Analysis) objectInputStream.readObject();
+		} catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	public String encode() {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(this);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+	}
+
 	public void write(Path path) {
 		try {
 			FileOutputStream fileOutputStream = new FileOutputStream(path.toFile());
@@ -137,12 +185,36 @@ public abstract class Analysis implements Serializable {
 	}
 
 	protected <T> Result<T> execute(Callable<T> method) {
+		return execute(method, null);
+	}
+
+	/**
+	 * On timeout (or a solver timeout), the partial result is returned if there
+	 * is one; otherwise, a timeout is recorded.
+	 */
+	protected <T> Result<T> execute(Callable<T> method, Supplier<T> partialResult) {
+		return execute(method, partialResult, parameters.timeout);
+	}
+
+	protected <T> Result<T> execute(Callable<T> method, Supplier<T> partialResult, long timeout) {
+		return execute(method, partialResult, timeout, null);
+	}
+
+	/**
+	 * If the calling thread is interrupted, the handler is run and the method is
+	 * cancelled.
+	 */
+	protected <T> Result<T> execute(Callable<T> method, Supplier<T> partialResult, long timeout,
+		Runnable interruptHandler) {
 		final ExecutorService executor = Executors.newSingleThreadExecutor();
 		final Future<Result<T>> future = executor.submit(() -> {
 			T payload = null;
 			final long localTime = System.nanoTime();
 			try {
 				payload = method.call();
+			} catch (RuntimeTimeoutException
+				| de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException e) {
+				throw e;
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -150,15 +222,49 @@ public abstract class Analysis implements Serializable {
 			return payload == null ? null : new Result<>(timeNeeded, payload, null);
 		});
 		try {
-			return future.get(parameters.timeout, TimeUnit.MILLISECONDS);
-		} catch (TimeoutException | ExecutionException | InterruptedException | RuntimeTimeoutException e) {
+			return future.get(Math.max(timeout, 0), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			cancel(future, executor);
+			return getPartialResult(partialResult);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeTimeoutException
+				|| e.getCause() instanceof de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException) {
+				return getPartialResult(partialResult);
+			}
 			System.exit(0);
+		} catch (InterruptedException e) {
+			if (interruptHandler == null) {
+				System.exit(0);
+			}
+			interruptHandler.run();
+			cancel(future, executor);
 		} finally {
 			executor.shutdownNow();
 		}
 		return null;
 	}
 
+	private void cancel(Future<?> future, ExecutorService executor) {
+		future.cancel(true);
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(parameters.cancelGracePeriod, TimeUnit.MILLISECONDS)) {
+				System.exit(0);
+			}
+		} catch (InterruptedException e) {
+			System.exit(0);
+		}
+	}
+
+	private <T> Result<T> getPartialResult(Supplier<T> partialResult) {
+		final T payload = partialResult != null ? partialResult.get() : null;
+		if (payload == null) {
+			printResult(TIMEOUT_MARKER);
+			return null;
+		}
+		return new Result<>(null, payload, null);
+	}
+
 	protected Result<Formula> executeTransformer(Formula formula, Transformer transformer) {
 		return execute(() -> Executor.run(transformer, formula).orElse(Logger::logProblems));
 	}
@@ -170,9 +276,10 @@ public abstract class Analysis implements Serializable {
 		return fmReader.read(path.toString()).orElseThrow(p -> new RuntimeException("no feature model"));
 	}
 
-	protected void writeFormula(Formula formula, Path path) {
+	protected void writeCNF(ClauseArena arena) {
 		try {
-			FileHandler.save(formula, path, new DIMACSFormat());
+			DimacsStreamWriter.write(arena, getTempPath());
+			BinaryCNFFormat.write(arena, getTempPath(BinaryCNFFormat.SUFFIX), parameters.compressCNF);
 		} catch (final IOException e) {
 			e.printStackTrace();
 		}
@@ -201,21 +308,130 @@ public abstract class Analysis implements Serializable {
 	}
 
 	protected void printResult(Object o) {
-		System.out.println(Wrapper.RESULT_PREFIX + o);
+		System.out.println(Runner.RESULT_PREFIX + o);
+		printedResults++;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static <T> T getShared(String key, Callable<T> loader) throws Exception {
+		if (!sharedData.containsKey(key)) {
+			sharedData.put(key, loader.call());
+		}
+		return (T) sharedData.get(key);
+	}
+
+	public static void releaseShared() {
+		sharedData.clear();
+	}
+
+	public boolean isBatchable() {
+		return false;
+	}
+
+	protected Map<String, Path> getCNFFiles() {
+		final Map<String, Path> files = new LinkedHashMap<>();
+		files.put("dimacs", getTempPath());
+		files.put(BinaryCNFFormat.SUFFIX, getTempPath(BinaryCNFFormat.SUFFIX));
+		files.put(DDNNF.SUFFIX, getTempPath(DDNNF.SUFFIX));
+		return files;
+	}
+
+	protected TransformationCache getCache() {
+		if (parameters.cachePath == null) {
+			return null;
+		}
+		try {
+			return new TransformationCache(Paths.get(parameters.cachePath),
+				Paths.get(parameters.rootPath).resolve(parameters.modelPath),
+				parameters.transformation.getClass().getName(),
+				((Transformation) parameters.transformation).getSettings()
+					+ (parameters.preprocessCNF ? ";preprocessed" : ""));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	protected boolean restoreFromCache(TransformationCache cache, long timeNeeded) {
+		if (cache == null || !cache.contains()) {
+			return false;
+		}
+		try {
+			cache.restore(getCNFFiles());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+		printResult(timeNeeded);
+		printResult(cache.getVariables());
+		printResult(cache.getClauses());
+		final long[] preprocessing = cache.getPreprocessing();
+		if (preprocessing != null) {
+			Arrays.stream(preprocessing).forEach(this::printResult);
+		}
+		return true;
+	}
+
+	protected void storeInCache(TransformationCache cache, long timeNeeded, long variables, long clauses,
+		long[] preprocessing) {
+		if (cache != null) {
+			try {
+				cache.store(getCNFFiles(), timeNeeded, variables, clauses, preprocessing);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
 	}
 
 	protected void processFormulaResult(Result<Formula> result) {
+		processCNFResult(result, ClauseArena::fromFormula);
+	}
+
+	protected <T> void processCNFResult(Result<T> result, Function<T, ClauseArena> toClauseArena) {
 		if (result != null) {
-			printResult(result.timeNeeded);
-			printResult(VariableMap.fromExpression(result.payload).size());
-			printResult(result.payload.getChildren().size());
-			writeFormula(result.payload, getTempPath());
+			final TransformationCache cache = getCache();
+			if (!restoreFromCache(cache, result.timeNeeded)) {
+				final ClauseArena arena = toClauseArena.apply(result.payload);
+				// the original CNF is not needed anymore, so it can be collected before writing
+				result.payload = null;
+				if (!parameters.preprocessCNF) {
+					printResult(result.timeNeeded);
+					printResult(arena.getVariableCount());
+					printResult(arena.getClauseCount());
+					writeCNF(arena);
+					storeInCache(cache, result.timeNeeded, arena.getVariableCount(), arena.getClauseCount(), null);
+					return;
+				}
+				// preprocessing is part of the transformation, so it only gets the rest of its timeout
+				final Result<ClauseArena> preprocessed = execute(() -> new CNFPreprocessor(arena).preprocess(), null,
+					parameters.timeout - TimeUnit.NANOSECONDS.toMillis(result.timeNeeded));
+				if (preprocessed == null) {
+					// the transformation counts as failed, so no CNF is written
+					return;
+				}
+				printResult(result.timeNeeded);
+				printResult(arena.getVariableCount());
+				printResult(arena.getClauseCount());
+				final ClauseArena preprocessedArena = preprocessed.payload;
+				final long[] preprocessing = { preprocessed.timeNeeded, preprocessedArena.getVariableCount(),
+					preprocessedArena.getClauseCount() };
+				Arrays.stream(preprocessing).forEach(this::printResult);
+				writeCNF(preprocessedArena);
+				storeInCache(cache, result.timeNeeded, arena.getVariableCount(), arena.getClauseCount(),
+					preprocessing);
+			}
 		}
 	}
 
+	protected void printBlowUp(long estimate) {
+		printResult("BLOWUP");
+		printResult("NA");
+		printResult(">" + estimate);
+	}
+
 	protected void printResult(Result<?> result) {
 		if (result != null) {
-			printResult(result.timeNeeded);
+			printResult(result.timeNeeded != null ? result.timeNeeded : TIMEOUT_MARKER);
 			if (result.md5 != null)
 				printResult(result.md5.substring(0, 6));
 			printResult(result.payload);
@@ -256,6 +472,16 @@ public abstract class Analysis implements Serializable {
 		return null;
 	}
 
+	/**
+	 * Prefixes the hash with "~" if the transformation does not preserve the
+	 * model count.
+	 */
+	protected String modelCountMd5(String count) {
+		final String md5 = md5(count);
+		return !(parameters.transformation instanceof Transformation)
+			|| ((Transformation) parameters.transformation).preservesModelCount() ? md5 : "~" + md5;
+	}
+
 	protected String md5(String str) {
 		return md5(Collections.singletonList(str));
 	}
@@ -265,6 +491,60 @@ public abstract class Analysis implements Serializable {
 	abstract static class Transformation extends Analysis {
 		private static final long serialVersionUID = 1L;
 
+		@Override
+		public void run() throws Exception {
+			if (!parameters.retimeTransformations) {
+				final TransformationCache cache = getCache();
+				if (cache != null && cache.contains() && restoreFromCache(cache, cache.getTime())) {
+					return;
+				}
+			}
+			transform();
+		}
+
+		abstract void transform() throws Exception;
+
+		/**
+		 * Records a blow-up instead if the clause or memory budget is exceeded.
+		 */
+		protected <T> Result<T> executeDistribution(Formula formula, Callable<T> method) {
+			final long estimate = new CNFSizeEstimator(Long.MAX_VALUE)
+				.estimate(NormalForms.simplifyForNF(formula), true);
+			if (parameters.distribClauseLimit > 0 && estimate > parameters.distribClauseLimit) {
+				printBlowUp(estimate);
+				return null;
+			}
+			final Thread thread = Thread.currentThread();
+			final AtomicBoolean done = new AtomicBoolean();
+			try (MemoryWatchdog watchdog = new MemoryWatchdog(parameters.distribMemoryLimit, () -> {
+				synchronized (done) {
+					if (!done.getAndSet(true)) {
+						thread.interrupt();
+					}
+				}
+			})) {
+				final Result<T> result = execute(method, null, parameters.timeout, () -> printBlowUp(estimate));
+				synchronized (done) {
+					done.set(true);
+				}
+				// clears an interrupt that arrived after the transformation finished
+				Thread.interrupted();
+				return result;
+			}
+		}
+
+		protected Result<Formula> executeDistribution(Formula formula, Transformer transformer) {
+			return executeDistribution(formula, () -> Executor.run(transformer, formula).orElse(Logger::logProblems));
+		}
+
+		String getSettings() {
+			return "";
+		}
+
+		boolean preservesModelCount() {
+			return true;
+		}
+
 		@Override
 		public String toString() {
 			return getClass().getSimpleName();
@@ -276,15 +556,58 @@ public abstract class Analysis implements Serializable {
 
 		@Override
 		public void run() throws Exception {
-			if (fileExists(getTempPath())) {
-				final IFeatureModel featureModel = FeatureModelManager.load(getTempPath());
-				if (featureModel != null) {
-					run(featureModel);
-				}
+			final CNF cnf = getShared("cnf:" + getTempPath(), this::load);
+			if (cnf != null) {
+				run(cnf);
 			}
 		}
 
-		abstract void run(IFeatureModel featureModel) throws Exception;
+		private CNF load() throws IOException {
+			final Path binaryPath = getTempPath(BinaryCNFFormat.SUFFIX);
+			if (Files.exists(binaryPath)) {
+				return BinaryCNFFormat.read(binaryPath).toCNF();
+			} else if (fileExists(getTempPath())) {
+				return DimacsStreamReader.read(getTempPath()).toCNF();
+			}
+			return null;
+		}
+
+		abstract void run(CNF cnf) throws Exception;
+
+		protected void printCoreDead(CNF cnf, Result<LiteralSet> result, String suffix) throws IOException {
+			final LiteralSet coreDead = result.payload.retainAll(cnf.getVariables().convertToLiterals(
+				getActualFeatures(cnf), true, true));
+			final List<String> coreDeadFeatures = cnf.getVariables().convertToString(coreDead, true, true, true);
+			coreDeadFeatures.sort(Collator.getInstance());
+			Files.write(getTempPath(suffix), String.join("\n", coreDeadFeatures).getBytes());
+			printResult(new Result<>(result.timeNeeded, coreDead.size(), md5(coreDeadFeatures)));
+		}
+
+		protected void printAtomicSets(CNF cnf, Result<List<LiteralSet>> result, String suffix)
+			throws IOException {
+			final LiteralSet actualFeatures = cnf.getVariables().convertToLiterals(getActualFeatures(cnf), true,
+				true);
+			final List<LiteralSet> atomicSets = result.payload.stream()
+				.map(atomicSet -> atomicSet.retainAll(actualFeatures))
+				.filter(atomicSet -> !atomicSet.isEmpty())
+				.collect(Collectors.toList());
+			final List<String> atomicSetFeatures = atomicSets.stream()
+				.map(atomicSet -> {
+					final List<String> features = new ArrayList<>(cnf.getVariables()
+						.convertToString(atomicSet.getVariables(), true, false, false));
+					features.sort(Collator.getInstance());
+					return features.toString();
+				})
+				.sorted(Collator.getInstance())
+				.collect(Collectors.toList());
+			Files.write(getTempPath(suffix), String.join("\n", atomicSetFeatures).getBytes());
+			printResult(new Result<>(result.timeNeeded, atomicSets.size(), md5(atomicSetFeatures)));
+		}
+
+		@Override
+		public boolean isBatchable() {
+			return true;
+		}
 	}
 
 	abstract static class SPLDevAnalysis extends Analysis {
@@ -292,15 +615,28 @@ public abstract class Analysis implements Serializable {
 
 		@Override
 		public void run() throws Exception {
-			if (fileExists(getTempPath())) {
-				final org.spldev.util.data.Result<ModelRepresentation> rep = ModelRepresentation.load(getTempPath());
-				if (rep.isPresent()) {
-					run(rep.get());
-				}
+			final ModelRepresentation rep = getShared("rep:" + getTempPath(), this::load);
+			if (rep != null) {
+				run(rep);
 			}
 		}
 
+		private ModelRepresentation load() throws IOException {
+			final Path binaryPath = getTempPath(BinaryCNFFormat.SUFFIX);
+			if (Files.exists(binaryPath)) {
+				return new ModelRepresentation(BinaryCNFFormat.read(binaryPath).toFormula());
+			} else if (fileExists(getTempPath())) {
+				return ModelRepresentation.load(getTempPath()).orElse(Logger::logProblems);
+			}
+			return null;
+		}
+
 		abstract void run(ModelRepresentation modelRepresentation) throws Exception;
+
+		@Override
+		public boolean isBatchable() {
+			return true;
+		}
 	}
 
 	abstract static class ProcessAnalysis<T> extends Analysis {
@@ -314,11 +650,12 @@ public abstract class Analysis implements Serializable {
 				Result<T> result = execute(() -> {
 					T payload = getDefaultResult();
 					Process process = null;
-					ProcessBuilder processBuilder = new ProcessBuilder(command);
+					// the error output is discarded, so the process never blocks on writing it
+					ProcessBuilder processBuilder = new ProcessBuilder(command)
+						.redirectError(ProcessBuilder.Redirect.DISCARD);
 					try {
 						process = processBuilder.start();
-						final BufferedReader reader = new BufferedReader(new InputStreamReader(process
-							.getInputStream()));
+						final FutureTask<T> output = readOutput(process);
 						boolean success;
 						if (useTimeout)
 							success = process.waitFor(parameters.timeout, TimeUnit.MILLISECONDS);
@@ -326,9 +663,9 @@ public abstract class Analysis implements Serializable {
 							success = process.waitFor() == 0;
 						if (success) {
 							process = null;
-							payload = getPayload(reader.lines());
+							payload = output.get();
 						}
-					} catch (IOException | InterruptedException e) {
+					} catch (IOException | InterruptedException | ExecutionException e) {
 						e.printStackTrace();
 					} finally {
 						if (process != null) {
@@ -344,6 +681,21 @@ public abstract class Analysis implements Serializable {
 			}
 		}
 
+		private FutureTask<T> readOutput(Process process) {
+			final FutureTask<T> output = new FutureTask<>(() -> {
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+					final T payload = getPayload(reader.lines());
+					while (reader.readLine() != null) {
+					}
+					return payload;
+				}
+			});
+			final Thread thread = new Thread(output);
+			thread.setDaemon(true);
+			thread.start();
+			return output;
+		}
+
 		abstract String[] getCommand();
 
 		abstract T getDefaultResult();
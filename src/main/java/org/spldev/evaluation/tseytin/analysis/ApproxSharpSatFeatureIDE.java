@@ -0,0 +1,46 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.math.*;
+import java.util.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+
+public class ApproxSharpSatFeatureIDE extends Analysis.FeatureIDEAnalysis {
+	private static final long serialVersionUID = 7472135580912483311L;
+
+	@Override
+	public void run(CNF cnf) throws Exception {
+		// only actual features are counted, auxiliary variables are projected away
+		final int[] actualFeatures = getActualFeatures(cnf).stream().mapToInt(cnf.getVariables()::getVariable)
+			.toArray();
+		final ApproximateModelCounter counter = new ApproximateModelCounter(cnf, actualFeatures,
+			parameters.approxEpsilon, parameters.approxDelta, new Random(parameters.iteration));
+		counter.setTimeout(parameters.timeout);
+		final Result<BigInteger> result = execute(counter::count);
+		if (result == null)
+			return;
+		printResult(new Result<>(result.timeNeeded, result.payload.toString(), null));
+	}
+}
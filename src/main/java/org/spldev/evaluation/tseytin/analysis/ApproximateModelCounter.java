@@ -0,0 +1,226 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.math.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.*;
+
+/**
+ * Approximates the projected model count with random XOR constraints, as in
+ * ApproxMC.
+ */
+public class ApproximateModelCounter {
+	private static final int BLOCKING_SELECTORS = 64;
+	private static final int INITIAL_ROWS = 16;
+
+	private final CNF cnf;
+	private final int[] projected;
+	private final Random random;
+	private final int threshold;
+	private final int iterations;
+	private long timeout = Long.MAX_VALUE;
+	private long deadline;
+
+	private final List<int[]> rows = new ArrayList<>();
+	private AdvancedSatSolver solver;
+	private int[] rowSelectors;
+	private int[] blockingSelectors;
+	private int nextBlockingSelector;
+
+	public ApproximateModelCounter(CNF cnf, int[] projected, double epsilon, double delta, Random random) {
+		this.cnf = cnf;
+		this.projected = projected;
+		this.random = random;
+		threshold = 1 + (int) Math.ceil(9.84 * (1 + epsilon / (1 + epsilon)) * Math.pow(1 + 1 / epsilon, 2));
+		iterations = (int) Math.ceil(17 * Math.log(3 / delta) / Math.log(2));
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public BigInteger count() {
+		deadline = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + timeout;
+		buildSolver(0);
+		final int modelCount = countCell(0);
+		if (modelCount < threshold) {
+			return BigInteger.valueOf(modelCount);
+		}
+		final List<BigInteger> estimates = new ArrayList<>();
+		int previousRowCount = 1;
+		for (int i = 0; i < iterations; i++) {
+			rows.clear();
+			buildSolver(Math.max(INITIAL_ROWS, 2 * previousRowCount));
+			// find the least number of rows m for which the cell is smaller than the threshold,
+			// by doubling m starting from the previous result and then bisecting
+			final Map<Integer, Integer> cellSizes = new HashMap<>();
+			int lower = 0, upper = projected.length + 1;
+			int m = Math.min(previousRowCount, projected.length);
+			while (upper - lower > 1) {
+				final int cellSize = cellSizes.computeIfAbsent(m, this::countCell);
+				if (cellSize >= threshold) {
+					lower = m;
+					m = upper > projected.length ? Math.min(2 * m, projected.length) : (lower + upper) / 2;
+					if (m == lower) {
+						break;
+					}
+				} else {
+					upper = m;
+					m = (lower + upper) / 2;
+				}
+			}
+			if (upper > projected.length) {
+				estimates.add(BigInteger.valueOf(cellSizes.get(lower)).shiftLeft(lower));
+				previousRowCount = lower;
+			} else {
+				estimates.add(BigInteger.valueOf(cellSizes.get(upper)).shiftLeft(upper));
+				previousRowCount = upper;
+			}
+		}
+		Collections.sort(estimates);
+		return estimates.get(estimates.size() / 2);
+	}
+
+	private int countCell(int m) {
+		if (m > rowSelectors.length) {
+			buildSolver(Math.max(m, 2 * rowSelectors.length));
+		}
+		if (nextBlockingSelector == blockingSelectors.length) {
+			buildSolver(rowSelectors.length);
+		}
+		final int blockingSelector = blockingSelectors[nextBlockingSelector++];
+		final int[] assumptions = new int[rowSelectors.length + 1];
+		for (int i = 0; i < rowSelectors.length; i++) {
+			assumptions[i] = i < m ? rowSelectors[i] : -rowSelectors[i];
+		}
+		assumptions[rowSelectors.length] = blockingSelector;
+
+		final boolean[] values = new boolean[cnf.getVariables().size() + 1];
+		int count = 0;
+		while (count < threshold) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException();
+			}
+			// each call only gets the time remaining for the whole count
+			final long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new RuntimeTimeoutException();
+			}
+			solver.setTimeout((int) Math.min(Integer.MAX_VALUE, remaining));
+			final SatResult result = solver.hasSolution(assumptions);
+			if (result == SatResult.TIMEOUT) {
+				throw new RuntimeTimeoutException();
+			} else if (result == SatResult.FALSE) {
+				break;
+			}
+			count++;
+			for (final int literal : solver.getSolution()) {
+				if (Math.abs(literal) < values.length) {
+					values[Math.abs(literal)] = literal > 0;
+				}
+			}
+			// excludes the projection of the solution from this cell
+			final int[] blockingClause = new int[projected.length + 1];
+			for (int i = 0; i < projected.length; i++) {
+				blockingClause[i] = values[projected[i]] ? -projected[i] : projected[i];
+			}
+			blockingClause[projected.length] = -blockingSelector;
+			solver.addClause(new LiteralSet(blockingClause));
+		}
+		// disables the blocking clauses of this cell
+		solver.addClause(new LiteralSet(-blockingSelector));
+		return count;
+	}
+
+	private void buildSolver(int rowCount) {
+		while (rows.size() < rowCount) {
+			final int[] variables = Arrays.stream(projected).filter(variable -> random.nextBoolean()).toArray();
+			final int[] row = Arrays.copyOf(variables, variables.length + 1);
+			row[variables.length] = random.nextBoolean() ? 1 : 0;
+			rows.add(row);
+		}
+		final int variableCount = cnf.getVariables().size();
+		final List<LiteralSet> clauses = new ArrayList<>(cnf.getClauses());
+		rowSelectors = new int[rowCount];
+		int nextVariable = variableCount + 1;
+		for (int i = 0; i < rowCount; i++) {
+			rowSelectors[i] = nextVariable++;
+		}
+		blockingSelectors = new int[BLOCKING_SELECTORS];
+		for (int i = 0; i < BLOCKING_SELECTORS; i++) {
+			blockingSelectors[i] = nextVariable++;
+		}
+		nextBlockingSelector = 0;
+		for (int i = 0; i < rowCount; i++) {
+			final int[] row = rows.get(i);
+			final List<Integer> literals = Arrays.stream(row, 0, row.length - 1).boxed().collect(Collectors
+				.toList());
+			nextVariable = encodeXor(literals, row[row.length - 1] == 1, rowSelectors[i], nextVariable, clauses);
+		}
+		final List<String> names = new ArrayList<>(Arrays.asList(cnf.getVariables().getNames()).subList(1,
+			variableCount + 1));
+		for (int variable = variableCount + 1; variable < nextVariable; variable++) {
+			names.add("__xor__" + variable);
+		}
+		solver = new AdvancedSatSolver(new CNF(new Variables(names), clauses));
+	}
+
+	/**
+	 * Encodes that the literals have the given parity if the selector is true.
+	 *
+	 * @return the next unused variable
+	 */
+	static int encodeXor(List<Integer> literals, boolean parity, int selector, int nextVariable,
+		List<LiteralSet> clauses) {
+		final Deque<Integer> remaining = new ArrayDeque<>(literals);
+		while (remaining.size() > 3) {
+			final int auxiliary = nextVariable++;
+			addParityClauses(new int[] { remaining.poll(), remaining.poll(), remaining.poll(), auxiliary }, false, 0,
+				clauses);
+			remaining.push(auxiliary);
+		}
+		addParityClauses(remaining.stream().mapToInt(Integer::intValue).toArray(), parity, selector, clauses);
+		return nextVariable;
+	}
+
+	private static void addParityClauses(int[] literals, boolean parity, int selector, List<LiteralSet> clauses) {
+		for (int assignment = 0; assignment < 1 << literals.length; assignment++) {
+			if ((Integer.bitCount(assignment) % 2 == 1) != parity) {
+				final int[] clause = new int[literals.length + (selector != 0 ? 1 : 0)];
+				for (int i = 0; i < literals.length; i++) {
+					clause[i] = (assignment & 1 << i) != 0 ? -literals[i] : literals[i];
+				}
+				if (selector != 0) {
+					clause[literals.length] = -selector;
+				}
+				clauses.add(new LiteralSet(clause));
+			}
+		}
+	}
+}
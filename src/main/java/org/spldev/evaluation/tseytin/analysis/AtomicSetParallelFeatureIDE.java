@@ -0,0 +1,54 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class AtomicSetParallelFeatureIDE extends Analysis.FeatureIDEAnalysis {
+	private static final long serialVersionUID = 6327104589276433412L;
+
+	@Override
+	public void run(CNF cnf) throws Exception {
+		// only actual features are tested, auxiliary variables are skipped
+		// atomic sets found so far are kept as a partial result in case of a timeout
+		final List<LiteralSet> foundAtomicSets = Collections.synchronizedList(new ArrayList<>());
+		final InterruptibleMonitor<List<LiteralSet>> monitor = new InterruptibleMonitor<>();
+		monitor.setIntermediateFunction(foundAtomicSets::addAll);
+		Result<List<LiteralSet>> result = execute(() -> new ParallelAtomicSetAnalysis(cnf, cnf.getVariables()
+			.convertToLiterals(getActualFeatures(cnf), true, false), parameters.threads).analyze(monitor),
+			() -> {
+				synchronized (foundAtomicSets) {
+					// without any atomic sets found, a timeout is recorded instead
+					return foundAtomicSets.isEmpty() ? null : new ArrayList<>(foundAtomicSets);
+				}
+			});
+		if (result == null)
+			return;
+		printAtomicSets(cnf, result, "atomicsetsp");
+	}
+}
@@ -0,0 +1,78 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.spldev.evaluation.tseytin.Runner;
+
+/**
+ * Runs several analyses in one job, sharing the loaded CNF.
+ */
+public class Batch extends Analysis {
+	private static final long serialVersionUID = 4412980366425738517L;
+
+	private final List<Analysis> analyses;
+
+	public Batch(List<Analysis> analyses) {
+		this.analyses = analyses;
+	}
+
+	public List<Analysis> getAnalyses() {
+		return analyses;
+	}
+
+	@Override
+	public void run() {
+		for (final Analysis analysis : analyses) {
+			analysis.setParameters(parameters);
+			try {
+				analysis.run();
+			} catch (final Exception e) {
+				e.printStackTrace();
+			}
+			for (int i = analysis.printedResults; i < analysis.getResultColumns().length; i++) {
+				analysis.printResult("NA");
+			}
+			System.out.println(Runner.HEARTBEAT_MARKER);
+			System.out.flush();
+		}
+	}
+
+	@Override
+	public String[] getResultColumns() {
+		return analyses.stream()
+			.flatMap(analysis -> Arrays.stream(analysis.getResultColumns()))
+			.toArray(String[]::new);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{" +
+			"analyses=" + analyses.stream().map(analysis -> analysis.getClass().getSimpleName())
+				.collect(Collectors.toList()) +
+			", parameters=" + parameters +
+			'}';
+	}
+}
@@ -0,0 +1,368 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * DPLL-style search with component decomposition and caching. Variables
+ * that are not projected are existentially quantified.
+ */
+public abstract class ComponentSearch<T> {
+	private static final long STACK_SIZE = 1L << 30;
+
+	protected final int variableCount;
+	protected final int[][] clauses;
+	protected final boolean[] projected;
+	private final int[][] occurrences;
+	private final byte[] values;
+	private final int[] trail;
+	private int trailSize;
+
+	private final int[] variableStamps;
+	private final int[] clauseStamps;
+	private int stamp;
+	private final int[] scores;
+
+	private final long cacheLimit;
+	private long cacheSize;
+	private final LinkedHashMap<Component, T> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private Thread callerThread;
+
+	protected ComponentSearch(int variableCount, int[][] clauses, int[] projected, long cacheLimit) {
+		this.variableCount = variableCount;
+		this.cacheLimit = cacheLimit;
+		this.clauses = Arrays.stream(clauses).map(ComponentSearch::normalize).toArray(int[][]::new);
+		this.projected = new boolean[variableCount + 1];
+		if (projected == null) {
+			Arrays.fill(this.projected, 1, variableCount + 1, true);
+		} else {
+			for (final int variable : projected) {
+				this.projected[variable] = true;
+			}
+		}
+		final int[] occurrenceCounts = new int[2 * variableCount + 1];
+		for (final int[] clause : this.clauses) {
+			if (clause != null) {
+				for (final int literal : clause) {
+					occurrenceCounts[literal + variableCount]++;
+				}
+			}
+		}
+		occurrences = new int[2 * variableCount + 1][];
+		for (int i = 0; i < occurrences.length; i++) {
+			occurrences[i] = new int[occurrenceCounts[i]];
+		}
+		for (int c = 0; c < this.clauses.length; c++) {
+			if (this.clauses[c] != null) {
+				for (final int literal : this.clauses[c]) {
+					final int i = literal + variableCount;
+					occurrences[i][--occurrenceCounts[i]] = c;
+				}
+			}
+		}
+		values = new byte[variableCount + 1];
+		trail = new int[variableCount];
+		variableStamps = new int[variableCount + 1];
+		clauseStamps = new int[this.clauses.length];
+		scores = new int[variableCount + 1];
+	}
+
+	private static int[] normalize(int[] clause) {
+		final int[] literals = Arrays.stream(clause).distinct().toArray();
+		for (final int literal : literals) {
+			for (final int other : literals) {
+				if (literal == -other) {
+					return null;
+				}
+			}
+		}
+		return literals;
+	}
+
+	protected abstract T getTrue();
+
+	protected abstract T getFalse();
+
+	protected abstract boolean isFalse(T result);
+
+	protected abstract T decide(int variable, T positive, T negative);
+
+	protected abstract T conjoin(List<Integer> literals, List<Integer> freeVariables, List<T> components);
+
+	public T search() throws InterruptedException {
+		final Object[] result = new Object[1];
+		callerThread = Thread.currentThread();
+		final Thread thread = new Thread(null, () -> {
+			try {
+				result[0] = searchFormula();
+			} catch (RuntimeException | Error e) {
+				result[0] = e;
+			}
+		}, "component-search", STACK_SIZE);
+		thread.start();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			thread.interrupt();
+			throw e;
+		}
+		if (result[0] instanceof RuntimeException) {
+			throw (RuntimeException) result[0];
+		} else if (result[0] instanceof Error) {
+			throw (Error) result[0];
+		}
+		@SuppressWarnings("unchecked")
+		final T searchResult = (T) result[0];
+		return searchResult;
+	}
+
+	private T searchFormula() {
+		for (final int[] clause : clauses) {
+			if (clause != null) {
+				if (clause.length == 0) {
+					return getFalse();
+				} else if (clause.length == 1 && !assign(clause[0])) {
+					return getFalse();
+				}
+			}
+		}
+		if (!propagate(0)) {
+			return getFalse();
+		}
+		final int[] variables = new int[variableCount];
+		for (int i = 0; i < variableCount; i++) {
+			variables[i] = i + 1;
+		}
+		return searchComponents(variables, 0);
+	}
+
+	private T searchComponents(int[] variables, int position) {
+		final List<Component> components = new ArrayList<>();
+		final List<Integer> freeVariables = new ArrayList<>();
+		findComponents(variables, components, freeVariables);
+		final List<Integer> literals = new ArrayList<>();
+		for (int i = position; i < trailSize; i++) {
+			if (projected[Math.abs(trail[i])]) {
+				literals.add(trail[i]);
+			}
+		}
+		final List<T> results = new ArrayList<>(components.size());
+		for (final Component component : components) {
+			final T result = searchComponent(component);
+			if (isFalse(result)) {
+				return result;
+			}
+			results.add(result);
+		}
+		return conjoin(literals, freeVariables, results);
+	}
+
+	private T searchComponent(Component component) {
+		if (Thread.currentThread().isInterrupted() || callerThread.isInterrupted()) {
+			throw new CancellationException();
+		}
+		final T cachedResult = cache.get(component);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
+		// projected variables are decided first, preferring frequent ones
+		int decision = 0;
+		for (final int c : component.clauses) {
+			for (final int literal : clauses[c]) {
+				final int variable = Math.abs(literal);
+				if (values[variable] == 0) {
+					scores[variable]++;
+					if (decision == 0 || (projected[variable] && !projected[decision])
+						|| (projected[variable] == projected[decision] && scores[variable] > scores[decision])) {
+						decision = variable;
+					}
+				}
+			}
+		}
+		for (final int variable : component.variables) {
+			scores[variable] = 0;
+		}
+
+		final T result;
+		final T positive = searchBranch(component, decision);
+		if (projected[decision]) {
+			result = decide(decision, positive, searchBranch(component, -decision));
+		} else {
+			// all remaining variables are existentially quantified
+			result = isFalse(positive) ? searchBranch(component, -decision) : positive;
+		}
+
+		cache.put(component, result);
+		cacheSize += component.size();
+		for (final Iterator<Component> iterator = cache.keySet().iterator(); cacheSize > cacheLimit
+			&& iterator.hasNext();) {
+			cacheSize -= iterator.next().size();
+			iterator.remove();
+		}
+		return result;
+	}
+
+	private T searchBranch(Component component, int literal) {
+		final int position = trailSize;
+		final T result = assign(literal) && propagate(position) ? searchComponents(component.variables, position)
+			: getFalse();
+		undo(position);
+		return result;
+	}
+
+	private void findComponents(int[] variables, List<Component> components, List<Integer> freeVariables) {
+		stamp++;
+		final ArrayDeque<Integer> stack = new ArrayDeque<>();
+		for (final int root : variables) {
+			if (values[root] != 0 || variableStamps[root] == stamp) {
+				continue;
+			}
+			final List<Integer> componentVariables = new ArrayList<>();
+			final List<Integer> componentClauses = new ArrayList<>();
+			variableStamps[root] = stamp;
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				final int variable = stack.pop();
+				componentVariables.add(variable);
+				for (final int literal : new int[] { variable, -variable }) {
+					for (final int c : occurrences[literal + variableCount]) {
+						if (clauseStamps[c] == stamp) {
+							continue;
+						}
+						clauseStamps[c] = stamp;
+						if (!isSatisfied(clauses[c])) {
+							componentClauses.add(c);
+							for (final int other : clauses[c]) {
+								final int otherVariable = Math.abs(other);
+								if (values[otherVariable] == 0 && variableStamps[otherVariable] != stamp) {
+									variableStamps[otherVariable] = stamp;
+									stack.push(otherVariable);
+								}
+							}
+						}
+					}
+				}
+			}
+			if (!componentClauses.isEmpty()) {
+				components.add(new Component(toSortedArray(componentVariables), toSortedArray(componentClauses)));
+			} else if (projected[root]) {
+				freeVariables.add(root);
+			}
+		}
+	}
+
+	private static int[] toSortedArray(List<Integer> list) {
+		final int[] array = list.stream().mapToInt(Integer::intValue).toArray();
+		Arrays.sort(array);
+		return array;
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			if (values[Math.abs(literal)] == Integer.signum(literal)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean assign(int literal) {
+		final int variable = Math.abs(literal);
+		final int value = Integer.signum(literal);
+		if (values[variable] != 0) {
+			return values[variable] == value;
+		}
+		values[variable] = (byte) value;
+		trail[trailSize++] = literal;
+		return true;
+	}
+
+	private boolean propagate(int position) {
+		for (int i = position; i < trailSize; i++) {
+			for (final int c : occurrences[-trail[i] + variableCount]) {
+				int unassignedLiteral = 0;
+				int unassignedCount = 0;
+				boolean satisfied = false;
+				for (final int literal : clauses[c]) {
+					final int value = values[Math.abs(literal)];
+					if (value == 0) {
+						unassignedLiteral = literal;
+						unassignedCount++;
+					} else if (value == Integer.signum(literal)) {
+						satisfied = true;
+						break;
+					}
+				}
+				if (!satisfied) {
+					if (unassignedCount == 0) {
+						return false;
+					} else if (unassignedCount == 1) {
+						assign(unassignedLiteral);
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void undo(int position) {
+		while (trailSize > position) {
+			values[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+	private static class Component {
+		private final int[] variables;
+		private final int[] clauses;
+		private final int hashCode;
+
+		Component(int[] variables, int[] clauses) {
+			this.variables = variables;
+			this.clauses = clauses;
+			hashCode = 31 * Arrays.hashCode(variables) + Arrays.hashCode(clauses);
+		}
+
+		int size() {
+			return variables.length + clauses.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Component)) {
+				return false;
+			}
+			final Component other = (Component) obj;
+			return hashCode == other.hashCode && Arrays.equals(variables, other.variables) && Arrays.equals(
+				clauses, other.clauses);
+		}
+	}
+}
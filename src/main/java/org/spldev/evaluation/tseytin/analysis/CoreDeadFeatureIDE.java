@@ -22,34 +22,37 @@
  */
 package org.spldev.evaluation.tseytin.analysis;
 
-import java.io.*;
-import java.nio.file.*;
-import java.text.*;
 import java.util.*;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.*;
-import de.ovgu.featureide.fm.core.analysis.cnf.formula.*;
-import de.ovgu.featureide.fm.core.base.*;
-import de.ovgu.featureide.fm.core.job.monitor.*;
 
 public class CoreDeadFeatureIDE extends Analysis.FeatureIDEAnalysis {
 	private static final long serialVersionUID = 382302837042742104L;
 
 	@Override
-	public void run(IFeatureModel featureModel) throws IOException {
-		CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+	public void run(CNF cnf) throws Exception {
+		// only actual features are tested, auxiliary variables are skipped
+		final LiteralSet actualFeatures = cnf.getVariables().convertToLiterals(getActualFeatures(cnf), true, false);
+		// literals found so far are kept as a partial result in case of a timeout
+		final List<LiteralSet> foundLiterals = Collections.synchronizedList(new ArrayList<>());
+		final InterruptibleMonitor<LiteralSet> monitor = new InterruptibleMonitor<>();
+		monitor.setIntermediateFunction(literal -> {
+			foundLiterals.add(literal);
+			monitor.checkCancel();
+		});
+		// the solver checks for cancellation before each candidate, as the monitor is only invoked for core/dead ones
 		Result<LiteralSet> result = execute(() -> new de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis(
-			cnf)
-				.analyze(new NullMonitor<>()));
+			new InterruptibleSatSolver(cnf), actualFeatures).analyze(monitor),
+			() -> {
+				synchronized (foundLiterals) {
+					// without any literals found, a timeout is recorded instead
+					return foundLiterals.isEmpty() ? null
+						: new LiteralSet(foundLiterals.stream().flatMapToInt(literal -> Arrays.stream(literal
+							.getLiterals())).toArray());
+				}
+			});
 		if (result == null)
 			return;
-		LiteralSet coreDead = result.payload;
-		coreDead = coreDead.retainAll(cnf.getVariables().convertToLiterals(
-			getActualFeatures(cnf), true, true));
-		List<String> coreDeadFeatures = cnf.getVariables()
-			.convertToString(coreDead, true, true, true);
-		coreDeadFeatures.sort(Collator.getInstance());
-		Files.write(getTempPath("coredeadf"), String.join("\n", coreDeadFeatures).getBytes());
-		printResult(new Result<>(result.timeNeeded, coreDead.size(), md5(coreDeadFeatures)));
+		printCoreDead(cnf, result, "coredeadf");
 	}
 }
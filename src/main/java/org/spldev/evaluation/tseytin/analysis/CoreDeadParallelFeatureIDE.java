@@ -0,0 +1,57 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+
+public class CoreDeadParallelFeatureIDE extends Analysis.FeatureIDEAnalysis {
+	private static final long serialVersionUID = -1720348553061925744L;
+
+	@Override
+	public void run(CNF cnf) throws Exception {
+		// only actual features are tested, auxiliary variables are skipped
+		final LiteralSet actualFeatures = cnf.getVariables().convertToLiterals(getActualFeatures(cnf), true, false);
+		// literals found so far are kept as a partial result in case of a timeout
+		final List<LiteralSet> foundLiterals = Collections.synchronizedList(new ArrayList<>());
+		final InterruptibleMonitor<LiteralSet> monitor = new InterruptibleMonitor<>();
+		monitor.setIntermediateFunction(literal -> {
+			foundLiterals.add(literal);
+			monitor.checkCancel();
+		});
+		Result<LiteralSet> result = execute(() -> new ParallelCoreDeadAnalysis(cnf, actualFeatures,
+			parameters.threads).analyze(monitor),
+			() -> {
+				synchronized (foundLiterals) {
+					// without any literals found, a timeout is recorded instead
+					return foundLiterals.isEmpty() ? null
+						: new LiteralSet(foundLiterals.stream().flatMapToInt(literal -> Arrays.stream(literal
+							.getLiterals())).toArray());
+				}
+			});
+		if (result == null)
+			return;
+		printCoreDead(cnf, result, "coredeadp");
+	}
+}
@@ -39,11 +39,17 @@ public class CoreDeadSPLDev extends Analysis.SPLDevAnalysis {
 
 	@Override
 	public void run(ModelRepresentation rep) throws IOException {
-		Result<LiteralList> result = execute(() -> new CoreDeadAnalysis().getResult(rep).get());
+		// only actual features are tested, auxiliary variables are skipped
+		final LiteralList actualFeatures = LiteralList.getLiterals(rep.getVariables(), getActualFeatures(rep));
+		Result<LiteralList> result = execute(() -> {
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis();
+			analysis.setVariables(actualFeatures);
+			return analysis.getResult(rep).get();
+		});
 		if (result == null)
 			return;
 		LiteralList coreDead = result.payload;
-		coreDead = coreDead.retainAll(LiteralList.getLiterals(rep.getVariables(), getActualFeatures(rep)));
+		coreDead = coreDead.retainAll(actualFeatures);
 		List<String> coreDeadFeatures = Arrays.stream(coreDead.getPositiveLiterals().getVariables()
 			.getLiterals())
 			.mapToObj(index -> rep.getVariables().getName(index)).filter(Optional::isPresent).map(Optional::get)
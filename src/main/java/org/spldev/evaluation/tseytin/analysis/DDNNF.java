@@ -0,0 +1,253 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.io.*;
+import java.math.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Smooth d-DNNF in the NNF format of c2d. Children precede their parents.
+ */
+public class DDNNF {
+	public static final String SUFFIX = "nnf";
+	private static final int LITERAL = 0, AND = 1, OR = 2;
+
+	private final int variableCount;
+	private final List<int[]> nodes = new ArrayList<>();
+	private long compileTime;
+
+	public DDNNF(int variableCount) {
+		this.variableCount = variableCount;
+	}
+
+	public int getVariableCount() {
+		return variableCount;
+	}
+
+	public int getNodeCount() {
+		return nodes.size();
+	}
+
+	public long getCompileTime() {
+		return compileTime;
+	}
+
+	public void setCompileTime(long compileTime) {
+		this.compileTime = compileTime;
+	}
+
+	public int addLiteral(int literal) {
+		return addNode(new int[] { LITERAL, literal });
+	}
+
+	public int addAnd(List<Integer> children) {
+		final int[] node = new int[children.size() + 1];
+		node[0] = AND;
+		for (int i = 0; i < children.size(); i++) {
+			node[i + 1] = children.get(i);
+		}
+		return addNode(node);
+	}
+
+	public int addOr(int variable, int... children) {
+		final int[] node = new int[children.length + 2];
+		node[0] = OR;
+		node[1] = variable;
+		System.arraycopy(children, 0, node, 2, children.length);
+		return addNode(node);
+	}
+
+	private int addNode(int[] node) {
+		nodes.add(node);
+		return nodes.size() - 1;
+	}
+
+	private int getChildrenStart(int[] node) {
+		return node[0] == OR ? 2 : 1;
+	}
+
+	private BigInteger[] evaluate(int condition) {
+		final BigInteger[] values = new BigInteger[nodes.size()];
+		for (int i = 0; i < values.length; i++) {
+			final int[] node = nodes.get(i);
+			if (node[0] == LITERAL) {
+				values[i] = node[1] == -condition ? BigInteger.ZERO : BigInteger.ONE;
+			} else if (node[0] == AND) {
+				BigInteger value = BigInteger.ONE;
+				for (int j = 1; j < node.length && value.signum() != 0; j++) {
+					value = value.multiply(values[node[j]]);
+				}
+				values[i] = value;
+			} else {
+				BigInteger value = BigInteger.ZERO;
+				for (int j = 2; j < node.length; j++) {
+					value = value.add(values[node[j]]);
+				}
+				values[i] = value;
+			}
+		}
+		return values;
+	}
+
+	public BigInteger count() {
+		return count(0);
+	}
+
+	public BigInteger count(int condition) {
+		return nodes.isEmpty() ? BigInteger.ZERO : evaluate(condition)[nodes.size() - 1];
+	}
+
+	/**
+	 * Counts the models containing each literal l and the given literal (if
+	 * any) in one top-down pass.
+	 *
+	 * @return the count for each literal l at index l + n
+	 */
+	public BigInteger[] countLiterals(int condition) {
+		final BigInteger[] counts = new BigInteger[2 * variableCount + 1];
+		Arrays.fill(counts, BigInteger.ZERO);
+		if (nodes.isEmpty()) {
+			return counts;
+		}
+		final BigInteger[] values = evaluate(condition);
+		final BigInteger[] derivatives = new BigInteger[nodes.size()];
+		derivatives[nodes.size() - 1] = BigInteger.ONE;
+		for (int i = nodes.size() - 1; i >= 0; i--) {
+			final BigInteger derivative = derivatives[i];
+			if (derivative == null || derivative.signum() == 0) {
+				continue;
+			}
+			final int[] node = nodes.get(i);
+			if (node[0] == LITERAL) {
+				counts[node[1] + variableCount] = counts[node[1] + variableCount].add(derivative);
+			} else if (node[0] == AND) {
+				// the derivative of a child is the product of its siblings
+				final int childCount = node.length - 1;
+				final BigInteger[] suffixProducts = new BigInteger[childCount + 1];
+				suffixProducts[childCount] = BigInteger.ONE;
+				for (int j = childCount - 1; j >= 0; j--) {
+					suffixProducts[j] = suffixProducts[j + 1].multiply(values[node[j + 1]]);
+				}
+				BigInteger prefixProduct = derivative;
+				for (int j = 0; j < childCount; j++) {
+					addDerivative(derivatives, node[j + 1], prefixProduct.multiply(suffixProducts[j + 1]));
+					prefixProduct = prefixProduct.multiply(values[node[j + 1]]);
+				}
+			} else {
+				for (int j = 2; j < node.length; j++) {
+					addDerivative(derivatives, node[j], derivative);
+				}
+			}
+		}
+		if (condition != 0) {
+			counts[-condition + variableCount] = BigInteger.ZERO;
+		}
+		return counts;
+	}
+
+	private static void addDerivative(BigInteger[] derivatives, int node, BigInteger derivative) {
+		derivatives[node] = derivatives[node] == null ? derivative : derivatives[node].add(derivative);
+	}
+
+	public void write(Path path) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+			long edgeCount = 0;
+			for (final int[] node : nodes) {
+				edgeCount += node[0] == LITERAL ? 0 : node.length - getChildrenStart(node);
+			}
+			writer.write("c t " + compileTime);
+			writer.newLine();
+			writer.write("nnf " + nodes.size() + " " + edgeCount + " " + variableCount);
+			writer.newLine();
+			final StringBuilder line = new StringBuilder();
+			for (final int[] node : nodes) {
+				line.setLength(0);
+				if (node[0] == LITERAL) {
+					line.append("L ").append(node[1]);
+				} else if (node[0] == AND) {
+					line.append("A ").append(node.length - 1);
+				} else {
+					line.append("O ").append(node[1]).append(' ').append(node.length - 2);
+				}
+				for (int j = getChildrenStart(node); node[0] != LITERAL && j < node.length; j++) {
+					line.append(' ').append(node[j]);
+				}
+				writer.write(line.toString());
+				writer.newLine();
+			}
+		}
+	}
+
+	public static DDNNF read(Path path) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(path)) {
+			DDNNF ddnnf = null;
+			long compileTime = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final String[] tokens = line.trim().split("\\s+");
+				switch (tokens[0]) {
+				case "c":
+					if (tokens.length == 3 && tokens[1].equals("t")) {
+						compileTime = Long.parseLong(tokens[2]);
+					}
+					break;
+				case "nnf":
+					ddnnf = new DDNNF(Integer.parseInt(tokens[3]));
+					break;
+				case "L":
+				case "A":
+				case "O":
+					if (ddnnf == null) {
+						throw new IOException("Missing nnf header in " + path);
+					}
+					final int[] node;
+					if (tokens[0].equals("L")) {
+						node = new int[] { LITERAL, Integer.parseInt(tokens[1]) };
+					} else {
+						// the number of children is implied by the line and skipped
+						final boolean isOr = tokens[0].equals("O");
+						node = new int[tokens.length - 1];
+						node[0] = isOr ? OR : AND;
+						if (isOr) {
+							node[1] = Integer.parseInt(tokens[1]);
+						}
+						for (int j = isOr ? 3 : 2; j < tokens.length; j++) {
+							node[j - 1] = Integer.parseInt(tokens[j]);
+						}
+					}
+					ddnnf.addNode(node);
+					break;
+				default:
+					break;
+				}
+			}
+			if (ddnnf == null) {
+				throw new IOException("Missing nnf header in " + path);
+			}
+			ddnnf.setCompileTime(compileTime);
+			return ddnnf;
+		}
+	}
+}
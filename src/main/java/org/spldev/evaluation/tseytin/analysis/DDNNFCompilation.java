@@ -0,0 +1,156 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.math.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+
+/**
+ * Compiles the CNF into a d-DNNF once and answers the model count, core/dead
+ * features, and atomic sets from it.
+ */
+public class DDNNFCompilation extends Analysis.FeatureIDEAnalysis {
+	private static final long serialVersionUID = -1830291504128366823L;
+
+	private long deadline;
+
+	@Override
+	public void run(CNF cnf) throws Exception {
+		deadline = System.currentTimeMillis() + parameters.timeout;
+		final int[] actualFeatures = getActualFeatures(cnf).stream().mapToInt(cnf.getVariables()::getVariable)
+			.toArray();
+		final DDNNF ddnnf = compile(cnf, actualFeatures);
+		if (ddnnf == null)
+			return;
+
+		final Result<BigInteger> countResult = executeUntilDeadline(ddnnf::count);
+		if (countResult == null)
+			return;
+		final String count = countResult.payload.toString();
+		// the projected count does not depend on auxiliary variables, so it is comparable for all transformations
+		printResult(new Result<>(countResult.timeNeeded, count, md5(count)));
+
+		final Result<LiteralSet> coreDeadResult = executeUntilDeadline(() -> getCoreDead(ddnnf, actualFeatures));
+		if (coreDeadResult == null)
+			return;
+		printCoreDead(cnf, coreDeadResult, "coredeadd");
+
+		final Result<List<LiteralSet>> atomicSetResult = executeUntilDeadline(() -> getAtomicSets(ddnnf,
+			actualFeatures));
+		if (atomicSetResult == null)
+			return;
+		printAtomicSets(cnf, atomicSetResult, "atomicsetsd");
+	}
+
+	private DDNNF compile(CNF cnf, int[] actualFeatures) throws Exception {
+		final Path path = getTempPath(DDNNF.SUFFIX);
+		if (fileExists(path)) {
+			final DDNNF ddnnf = DDNNF.read(path);
+			printResult(CACHED_MARKER);
+			return ddnnf;
+		}
+		final Result<DDNNF> result = executeUntilDeadline(() -> new DDNNFCompiler(cnf, actualFeatures,
+			parameters.modelCountCacheSize).compile());
+		if (result == null)
+			return null;
+		printResult(result.timeNeeded);
+		result.payload.setCompileTime(result.timeNeeded);
+		result.payload.write(path);
+		final TransformationCache cache = getCache();
+		if (cache != null) {
+			cache.add(DDNNF.SUFFIX, path);
+		}
+		return result.payload;
+	}
+
+	private <T> Result<T> executeUntilDeadline(Callable<T> method) {
+		return execute(method, null, deadline - System.currentTimeMillis());
+	}
+
+	private static LiteralSet getCoreDead(DDNNF ddnnf, int[] variables) {
+		if (ddnnf.count().signum() == 0) {
+			return new LiteralSet();
+		}
+		final BigInteger[] counts = ddnnf.countLiterals(0);
+		final int n = ddnnf.getVariableCount();
+		return new LiteralSet(Arrays.stream(variables)
+			.filter(variable -> counts[-variable + n].signum() == 0 || counts[variable + n].signum() == 0)
+			.map(variable -> counts[-variable + n].signum() == 0 ? variable : -variable)
+			.toArray());
+	}
+
+	private static List<LiteralSet> getAtomicSets(DDNNF ddnnf, int[] variables) {
+		final List<LiteralSet> atomicSets = new ArrayList<>();
+		final BigInteger count = ddnnf.count();
+		if (count.signum() == 0) {
+			return atomicSets;
+		}
+		final BigInteger[] counts = ddnnf.countLiterals(0);
+		final int n = ddnnf.getVariableCount();
+		final LiteralSet coreDead = getCoreDead(ddnnf, variables);
+		atomicSets.add(coreDead);
+
+		final Map<String, List<Integer>> candidates = new LinkedHashMap<>();
+		for (final int variable : variables) {
+			if (!coreDead.containsVariable(variable)) {
+				final BigInteger positive = counts[variable + n], negative = counts[-variable + n];
+				final String key = positive.min(negative) + "," + positive.max(negative);
+				candidates.computeIfAbsent(key, k -> new ArrayList<>()).add(variable);
+			}
+		}
+		for (List<Integer> remaining : candidates.values()) {
+			while (!remaining.isEmpty()) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new CancellationException();
+				}
+				final int representative = remaining.get(0);
+				final BigInteger representativeCount = counts[representative + n];
+				final BigInteger[] conditionedCounts = remaining.size() > 1 ? ddnnf.countLiterals(representative)
+					: null;
+				final List<Integer> atomicSet = new ArrayList<>();
+				final List<Integer> others = new ArrayList<>();
+				for (final int variable : remaining) {
+					if (variable == representative || isEquivalent(representativeCount, conditionedCounts, counts,
+						variable, n) || isEquivalent(representativeCount, conditionedCounts, counts, -variable, n)) {
+						atomicSet.add(variable);
+					} else {
+						others.add(variable);
+					}
+				}
+				atomicSets.add(new LiteralSet(atomicSet.stream().mapToInt(Integer::intValue).toArray()));
+				remaining = others;
+			}
+		}
+		return atomicSets;
+	}
+
+	private static boolean isEquivalent(BigInteger representativeCount, BigInteger[] conditionedCounts,
+		BigInteger[] counts, int literal, int n) {
+		return counts[literal + n].equals(representativeCount) && conditionedCounts[literal + n].equals(
+			representativeCount);
+	}
+}
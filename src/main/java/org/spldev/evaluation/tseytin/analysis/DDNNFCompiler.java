@@ -0,0 +1,106 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+
+/**
+ * Records the trace of a {@link ComponentSearch} as a d-DNNF.
+ */
+public class DDNNFCompiler extends ComponentSearch<Integer> {
+	private final DDNNF ddnnf;
+	private final int falseNode, trueNode;
+	private final Map<Integer, Integer> literalNodes = new HashMap<>();
+	private final Map<Integer, Integer> freeVariableNodes = new HashMap<>();
+
+	public DDNNFCompiler(CNF cnf, int[] projected, long cacheLimit) {
+		this(cnf.getVariables().size(), cnf.getClauses().stream().map(LiteralSet::getLiterals).toArray(
+			int[][]::new), projected, cacheLimit);
+	}
+
+	public DDNNFCompiler(int variableCount, int[][] clauses, int[] projected, long cacheLimit) {
+		super(variableCount, clauses, projected, cacheLimit);
+		ddnnf = new DDNNF(variableCount);
+		falseNode = ddnnf.addOr(0);
+		trueNode = ddnnf.addAnd(Collections.emptyList());
+	}
+
+	public DDNNF compile() throws InterruptedException {
+		final int root = search();
+		if (root != ddnnf.getNodeCount() - 1) {
+			// the root is expected to be the last node
+			ddnnf.addAnd(Collections.singletonList(root));
+		}
+		return ddnnf;
+	}
+
+	@Override
+	protected Integer getTrue() {
+		return trueNode;
+	}
+
+	@Override
+	protected Integer getFalse() {
+		return falseNode;
+	}
+
+	@Override
+	protected boolean isFalse(Integer result) {
+		return result == falseNode;
+	}
+
+	@Override
+	protected Integer decide(int variable, Integer positive, Integer negative) {
+		if (positive == falseNode) {
+			return negative;
+		} else if (negative == falseNode) {
+			return positive;
+		}
+		return ddnnf.addOr(variable, positive, negative);
+	}
+
+	@Override
+	protected Integer conjoin(List<Integer> literals, List<Integer> freeVariables, List<Integer> components) {
+		final List<Integer> children = new ArrayList<>(literals.size() + freeVariables.size() + components.size());
+		for (final int literal : literals) {
+			children.add(literalNodes.computeIfAbsent(literal, ddnnf::addLiteral));
+		}
+		for (final int variable : freeVariables) {
+			children.add(freeVariableNodes.computeIfAbsent(variable, v -> ddnnf.addOr(v, literalNodes
+				.computeIfAbsent(v, ddnnf::addLiteral), literalNodes.computeIfAbsent(-v, ddnnf::addLiteral))));
+		}
+		for (final int component : components) {
+			if (component != trueNode) {
+				children.add(component);
+			}
+		}
+		if (children.isEmpty()) {
+			return trueNode;
+		} else if (children.size() == 1) {
+			return children.get(0);
+		}
+		return ddnnf.addAnd(children);
+	}
+}
@@ -0,0 +1,71 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import de.ovgu.featureide.fm.core.job.monitor.*;
+
+/**
+ * Monitor that is canceled when the current thread is interrupted.
+ */
+public class InterruptibleMonitor<T> extends AMonitor<T> {
+	private volatile boolean cancel = false;
+
+	@Override
+	public void cancel() {
+		cancel = true;
+	}
+
+	@Override
+	public void done() {}
+
+	@Override
+	public void checkCancel() throws MethodCancelException {
+		if (cancel || Thread.currentThread().isInterrupted()) {
+			throw new MethodCancelException();
+		}
+	}
+
+	@Override
+	public <R> IMonitor<R> subTask(int size) {
+		return new InterruptibleMonitor<>();
+	}
+
+	@Override
+	public void worked(int work) {}
+
+	@Override
+	public void setRemainingWork(int work) {}
+
+	@Override
+	public void setTaskName(String name) {}
+
+	@Override
+	public String getTaskName() {
+		return "";
+	}
+
+	@Override
+	public int getRemainingWork() {
+		return 0;
+	}
+}
@@ -0,0 +1,55 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.concurrent.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+
+/**
+ * Solver that stops queries when the current thread is interrupted.
+ */
+public class InterruptibleSatSolver extends ModifiableSatSolver {
+	public InterruptibleSatSolver(CNF satInstance) {
+		super(satInstance);
+	}
+
+	@Override
+	public SatResult hasSolution() {
+		checkInterrupted();
+		return super.hasSolution();
+	}
+
+	@Override
+	public SatResult hasSolution(int... assignment) {
+		checkInterrupted();
+		return super.hasSolution(assignment);
+	}
+
+	private static void checkInterrupted() {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.math.*;
+import java.util.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+
+public class ModelCounter extends ComponentSearch<BigInteger> {
+
+	public ModelCounter(CNF cnf, long cacheLimit) {
+		this(cnf.getVariables().size(), cnf.getClauses().stream().map(LiteralSet::getLiterals).toArray(
+			int[][]::new), cacheLimit);
+	}
+
+	public ModelCounter(int variableCount, int[][] clauses, long cacheLimit) {
+		super(variableCount, clauses, null, cacheLimit);
+	}
+
+	public BigInteger count() throws InterruptedException {
+		return search();
+	}
+
+	@Override
+	protected BigInteger getTrue() {
+		return BigInteger.ONE;
+	}
+
+	@Override
+	protected BigInteger getFalse() {
+		return BigInteger.ZERO;
+	}
+
+	@Override
+	protected boolean isFalse(BigInteger result) {
+		return result.signum() == 0;
+	}
+
+	@Override
+	protected BigInteger decide(int variable, BigInteger positive, BigInteger negative) {
+		return positive.add(negative);
+	}
+
+	@Override
+	protected BigInteger conjoin(List<Integer> literals, List<Integer> freeVariables, List<BigInteger> components) {
+		BigInteger count = BigInteger.ONE.shiftLeft(freeVariables.size());
+		for (final BigInteger componentCount : components) {
+			count = count.multiply(componentCount);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,274 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.*;
+import de.ovgu.featureide.fm.core.job.monitor.*;
+
+/**
+ * Finds atomic sets with several threads, splitting blocks of candidates by
+ * the solutions found so far.
+ */
+public class ParallelAtomicSetAnalysis extends AVariableAnalysis<List<LiteralSet>> {
+	private final int threads;
+
+	public ParallelAtomicSetAnalysis(CNF satInstance, LiteralSet variables, int threads) {
+		super(satInstance);
+		setVariables(variables);
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	public ParallelAtomicSetAnalysis(ISatSolver solver, LiteralSet variables, int threads) {
+		super(solver);
+		setVariables(variables);
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	@Override
+	public List<LiteralSet> analyze(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		final List<LiteralSet> result = new ArrayList<>();
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] model1 = solver.findSolution();
+		if (model1 == null) {
+			return result;
+		}
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findSolution();
+
+		// core and dead literals are passed on as they are found, so they are kept in a partial result
+		final InterruptibleMonitor<LiteralSet> coreDeadMonitor = new InterruptibleMonitor<>();
+		coreDeadMonitor.setIntermediateFunction(literal -> monitor.invoke(Collections.singletonList(literal)));
+		final LiteralSet coreDead = new ParallelCoreDeadAnalysis(solver, variables, threads).analyze(
+			coreDeadMonitor);
+		result.add(coreDead);
+		solver.assignmentPushAll(coreDead.getLiterals());
+
+		final boolean[] isCoreDead = new boolean[model1.length];
+		for (final int literal : coreDead.getLiterals()) {
+			isCoreDead[Math.abs(literal) - 1] = true;
+		}
+		final List<Integer> first = new ArrayList<>(), second = new ArrayList<>();
+		final int[] candidates = variables != null ? variables.getVariables().getLiterals()
+			: IntStream.rangeClosed(1, model1.length).toArray();
+		for (final int variable : candidates) {
+			final int i = variable - 1;
+			if (!isCoreDead[i]) {
+				(model1[i] == model2[i] ? first : second).add(i);
+			}
+		}
+
+		final BlockingQueue<ISatSolver> solvers = new ArrayBlockingQueue<>(threads);
+		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
+		for (int i = 0; i < threads; i++) {
+			solvers.add(solver.clone());
+		}
+		final UnionFind atomicSets = new UnionFind(model1.length);
+		final List<int[]> solutions = Collections.synchronizedList(new ArrayList<>());
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			final List<BlockTask> tasks = new ArrayList<>();
+			for (final List<Integer> block : Arrays.asList(first, second)) {
+				if (!block.isEmpty()) {
+					tasks.add(new BlockTask(block, model1, solvers, atomicSets, solutions, 0, monitor));
+				}
+			}
+			pool.submit(() -> ForkJoinTask.invokeAll(tasks)).get();
+		} catch (final ExecutionException e) {
+			// rethrow timeouts and cancellations of a task as they are
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		} finally {
+			pool.shutdownNow();
+		}
+
+		final Map<Integer, List<Integer>> groups = new TreeMap<>();
+		for (final int variable : candidates) {
+			final int i = variable - 1;
+			if (!isCoreDead[i]) {
+				groups.computeIfAbsent(atomicSets.find(i), key -> new ArrayList<>()).add(model1[i]);
+			}
+		}
+		for (final List<Integer> group : groups.values()) {
+			result.add(new LiteralSet(group.stream().mapToInt(Integer::intValue).toArray()));
+		}
+		return result;
+	}
+
+	/**
+	 * Solutions before knownSolutions already agree on this block.
+	 */
+	private class BlockTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<Integer> block;
+		private final int[] model;
+		private final BlockingQueue<ISatSolver> solvers;
+		private final UnionFind atomicSets;
+		private final List<int[]> solutions;
+		private final int knownSolutions;
+		private final IMonitor<List<LiteralSet>> monitor;
+
+		BlockTask(List<Integer> block, int[] model, BlockingQueue<ISatSolver> solvers, UnionFind atomicSets,
+			List<int[]> solutions, int knownSolutions, IMonitor<List<LiteralSet>> monitor) {
+			this.block = block;
+			this.model = model;
+			this.solvers = solvers;
+			this.atomicSets = atomicSets;
+			this.solutions = solutions;
+			this.knownSolutions = knownSolutions;
+			this.monitor = monitor;
+		}
+
+		@Override
+		protected void compute() {
+			final int x = block.get(0);
+			if (block.size() == 1) {
+				monitor.invoke(Collections.singletonList(new LiteralSet(model[x])));
+				return;
+			}
+			final List<Integer> rest = new ArrayList<>();
+			final List<Integer> atomicSet = new ArrayList<>();
+			atomicSet.add(model[x]);
+			final ISatSolver threadSolver;
+			try {
+				threadSolver = solvers.take();
+			} catch (final InterruptedException e) {
+				throw new CancellationException();
+			}
+			try {
+				for (final int y : block.subList(1, block.size())) {
+					monitor.checkCancel();
+					if (isSeparated(x, y) || !implies(threadSolver, model[x], model[y])
+						|| !implies(threadSolver, -model[x], -model[y])) {
+						rest.add(y);
+					} else {
+						atomicSets.union(x, y);
+						atomicSet.add(model[y]);
+					}
+				}
+			} finally {
+				solvers.add(threadSolver);
+			}
+			// x is not compared to any other variable later, so its atomic set is complete
+			monitor.invoke(Collections.singletonList(new LiteralSet(atomicSet.stream().mapToInt(Integer::intValue)
+				.toArray())));
+
+			// split the rest by all solutions found since this block was created, by this or any other block
+			final List<int[]> newSolutions;
+			synchronized (solutions) {
+				newSolutions = new ArrayList<>(solutions.subList(knownSolutions, solutions.size()));
+			}
+			final Map<String, List<Integer>> blocks = new LinkedHashMap<>();
+			for (final int y : rest) {
+				final StringBuilder signature = new StringBuilder(newSolutions.size());
+				for (final int[] solution : newSolutions) {
+					signature.append(solution[y] == model[y] ? '1' : '0');
+				}
+				blocks.computeIfAbsent(signature.toString(), key -> new ArrayList<>()).add(y);
+			}
+			final List<BlockTask> tasks = new ArrayList<>();
+			for (final List<Integer> newBlock : blocks.values()) {
+				tasks.add(new BlockTask(newBlock, model, solvers, atomicSets, solutions, knownSolutions
+					+ newSolutions.size(), monitor));
+			}
+			invokeAll(tasks);
+		}
+
+		private boolean isSeparated(int x, int y) {
+			for (int i = knownSolutions; i < solutions.size(); i++) {
+				final int[] solution = solutions.get(i);
+				if ((solution[x] == model[x]) != (solution[y] == model[y])) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean implies(ISatSolver threadSolver, int literal1, int literal2) {
+			threadSolver.assignmentPush(literal1);
+			threadSolver.assignmentPush(-literal2);
+			try {
+				switch (threadSolver.hasSolution()) {
+				case FALSE:
+					return true;
+				case TIMEOUT:
+					reportTimeout();
+					return false;
+				case TRUE:
+					solutions.add(threadSolver.getSolution());
+					threadSolver.shuffleOrder(getRandom());
+					return false;
+				default:
+					return false;
+				}
+			} finally {
+				threadSolver.assignmentPop();
+				threadSolver.assignmentPop();
+			}
+		}
+	}
+
+	private static class UnionFind {
+		private final AtomicIntegerArray parents;
+
+		UnionFind(int size) {
+			parents = new AtomicIntegerArray(size);
+			for (int i = 0; i < size; i++) {
+				parents.set(i, i);
+			}
+		}
+
+		int find(int i) {
+			int parent;
+			while ((parent = parents.get(i)) != i) {
+				final int grandparent = parents.get(parent);
+				parents.compareAndSet(i, parent, grandparent);
+				i = grandparent;
+			}
+			return i;
+		}
+
+		void union(int i, int j) {
+			while (true) {
+				final int root1 = find(i), root2 = find(j);
+				if (root1 == root2) {
+					return;
+				}
+				final int low = Math.min(root1, root2), high = Math.max(root1, root2);
+				if (parents.compareAndSet(high, high, low)) {
+					return;
+				}
+			}
+		}
+	}
+}
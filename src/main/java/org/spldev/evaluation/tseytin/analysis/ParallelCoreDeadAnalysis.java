@@ -0,0 +1,141 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.*;
+import de.ovgu.featureide.fm.core.job.monitor.*;
+
+/**
+ * Finds core and dead variables with several threads sharing a queue of
+ * candidates.
+ */
+public class ParallelCoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
+	private final int threads;
+
+	public ParallelCoreDeadAnalysis(CNF satInstance, LiteralSet variables, int threads) {
+		super(satInstance);
+		setVariables(variables);
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	public ParallelCoreDeadAnalysis(ISatSolver solver, LiteralSet variables, int threads) {
+		super(solver);
+		setVariables(variables);
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	@Override
+	public LiteralSet analyze(IMonitor<LiteralSet> monitor) throws Exception {
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] model1 = solver.findSolution();
+		if (model1 == null) {
+			return new LiteralSet();
+		}
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findSolution();
+
+		// a candidate has the same value in all solutions found so far
+		final AtomicIntegerArray candidates = new AtomicIntegerArray(model1.length);
+		if (variables == null) {
+			for (int i = 0; i < model1.length; i++) {
+				candidates.set(i, model1[i] == model2[i] ? model1[i] : 0);
+			}
+		} else {
+			for (final int literal : variables.getLiterals()) {
+				final int i = Math.abs(literal) - 1;
+				candidates.set(i, model1[i] == model2[i] ? model1[i] : 0);
+			}
+		}
+		final boolean min = model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative()
+			+ new LiteralSet(model1, Order.INDEX, false).countNegative());
+
+		final AtomicInteger next = new AtomicInteger();
+		final Queue<Integer> coreDead = new ConcurrentLinkedQueue<>();
+		final List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			final ISatSolver threadSolver = solver.clone();
+			threadSolver.setSelectionStrategy(model1, min);
+			final Random random = new Random(getRandom().nextLong());
+			tasks.add(() -> {
+				findCoreDead(threadSolver, random, candidates, next, coreDead, monitor);
+				return null;
+			});
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (final Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			// rethrow timeouts and cancellations of a thread as they are
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		} finally {
+			executor.shutdownNow();
+		}
+		return new LiteralSet(coreDead.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	private void findCoreDead(ISatSolver threadSolver, Random random, AtomicIntegerArray candidates,
+		AtomicInteger next, Queue<Integer> coreDead, IMonitor<LiteralSet> monitor) {
+		for (int i = next.getAndIncrement(); i < candidates.length(); i = next.getAndIncrement()) {
+			monitor.checkCancel();
+			final int literal = candidates.get(i);
+			if (literal != 0) {
+				threadSolver.assignmentPush(-literal);
+				switch (threadSolver.hasSolution()) {
+				case FALSE:
+					threadSolver.assignmentReplaceLast(literal);
+					coreDead.add(literal);
+					monitor.invoke(new LiteralSet(literal));
+					break;
+				case TIMEOUT:
+					threadSolver.assignmentPop();
+					reportTimeout();
+					break;
+				case TRUE:
+					threadSolver.assignmentPop();
+					final int[] solution = threadSolver.getSolution();
+					for (int j = 0; j < solution.length; j++) {
+						final int candidate = candidates.get(j);
+						if (candidate != 0 && solution[j] != candidate) {
+							candidates.compareAndSet(j, candidate, 0);
+						}
+					}
+					threadSolver.shuffleOrder(random);
+					break;
+				}
+			}
+		}
+	}
+}
@@ -23,16 +23,13 @@
 package org.spldev.evaluation.tseytin.analysis;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 public class SatFeatureIDE extends Analysis.FeatureIDEAnalysis {
 	private static final long serialVersionUID = -5950974174911858966L;
 
 	@Override
-	public void run(IFeatureModel featureModel) throws Exception {
-		CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+	public void run(CNF cnf) throws Exception {
 		printResult(execute(() -> new de.ovgu.featureide.fm.core.analysis.cnf.analysis.HasSolutionAnalysis(cnf)
 			.analyze(new NullMonitor<>())));
 	}
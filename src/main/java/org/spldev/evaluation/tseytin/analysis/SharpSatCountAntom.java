@@ -56,6 +56,6 @@ public class SharpSatCountAntom extends Analysis.ProcessAnalysis<String> {
 
 	@Override
 	String getMd5(String payload) {
-		return md5(payload);
+		return modelCountMd5(payload);
 	}
 }
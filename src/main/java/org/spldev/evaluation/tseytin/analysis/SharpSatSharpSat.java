@@ -55,6 +55,6 @@ public class SharpSatSharpSat extends Analysis.ProcessAnalysis<String> {
 
 	@Override
 	String getMd5(String payload) {
-		return md5(payload);
+		return modelCountMd5(payload);
 	}
 }
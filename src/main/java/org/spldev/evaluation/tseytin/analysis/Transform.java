@@ -25,13 +25,13 @@ package org.spldev.evaluation.tseytin.analysis;
 import java.nio.file.*;
 
 import org.spldev.analysis.javasmt.solver.*;
+import org.spldev.evaluation.tseytin.cnf.*;
 import org.spldev.formula.structure.*;
 import org.spldev.formula.structure.transform.*;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.*;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.*;
 import de.ovgu.featureide.fm.core.base.*;
-import de.ovgu.featureide.fm.core.io.dimacs.*;
 import de.ovgu.featureide.fm.core.io.manager.*;
 
 public abstract class Transform extends Analysis {
@@ -47,7 +47,7 @@ public abstract class Transform extends Analysis {
 		private static final long serialVersionUID = 1243195775258320809L;
 
 		@Override
-		public void run() {
+		void transform() {
 			Formula formula = readFormula(Paths.get(parameters.modelPath));
 			processFormulaResult(executeTransformer(formula, new CNFTseitinTransformer()));
 		}
@@ -57,30 +57,31 @@ public abstract class Transform extends Analysis {
 		private static final long serialVersionUID = 8198210007041611191L;
 
 		@Override
-		public void run() {
+		void transform() {
 			Formula formula = readFormula(Paths.get(parameters.modelPath));
 			CNFTransformer transformer = new CNFTransformer();
 			transformer.setMaximumNumberOfLiterals(0);
 			processFormulaResult(executeTransformer(formula, transformer));
 		}
+
+		@Override
+		String getSettings() {
+			return "maximumNumberOfLiterals=0";
+		}
 	}
 
 	public static class DistribFeatureIDE extends Transformation {
 		private static final long serialVersionUID = 4668156394793748450L;
 
 		@Override
-		public void run() {
+		void transform() {
 			final IFeatureModel featureModel = FeatureModelManager
 				.load(Paths.get(parameters.rootPath).resolve(parameters.modelPath));
 			if (featureModel != null) {
-				Result<CNF> result = execute(() -> new FeatureModelFormula(featureModel).getCNF());
-				if (result != null) {
-					printResult(result.timeNeeded);
-					printResult(result.payload.getVariables().size());
-					printResult(result.payload.getClauses().size());
-					de.ovgu.featureide.fm.core.io.manager.FileHandler.save(getTempPath(), result.payload,
-						new DIMACSFormatCNF());
-				}
+				// the estimate is based on the equivalent formula read by spldev
+				Formula formula = readFormula(Paths.get(parameters.modelPath));
+				processCNFResult(executeDistribution(formula, () -> new FeatureModelFormula(featureModel).getCNF()),
+					ClauseArena::fromCNF);
 			}
 		}
 	}
@@ -89,9 +90,72 @@ public abstract class Transform extends Analysis {
 		private static final long serialVersionUID = -6532557981508394209L;
 
 		@Override
-		public void run() {
+		void transform() {
+			Formula formula = readFormula(Paths.get(parameters.modelPath));
+			processFormulaResult(executeDistribution(formula, new CNFTransformer()));
+		}
+	}
+
+	public static class TseytinArena extends Transformation {
+		private static final long serialVersionUID = -2793176384508722950L;
+
+		@Override
+		void transform() {
+			Formula formula = readFormula(Paths.get(parameters.modelPath));
+			processCNFResult(execute(() -> new TseytinEncoder().encode(formula)), arena -> arena);
+		}
+	}
+
+	public static class TseytinArenaHashed extends Transformation {
+		private static final long serialVersionUID = 1866107219512230383L;
+
+		@Override
+		void transform() {
+			Formula formula = readFormula(Paths.get(parameters.modelPath));
+			processCNFResult(execute(() -> new TseytinEncoder().setStructuralHashing(true).encode(formula)),
+				arena -> arena);
+		}
+	}
+
+	public static class PlaistedGreenbaum extends Transformation {
+		private static final long serialVersionUID = -5207717531880952154L;
+
+		@Override
+		void transform() {
+			Formula formula = readFormula(Paths.get(parameters.modelPath));
+			processCNFResult(execute(() -> new PlaistedGreenbaumEncoder().encode(formula)), arena -> arena);
+		}
+
+		@Override
+		boolean preservesModelCount() {
+			return false;
+		}
+	}
+
+	public static class Hybrid extends Transformation {
+		private static final long serialVersionUID = 3304650148021394412L;
+
+		@Override
+		void transform() {
+			Formula formula = readFormula(Paths.get(parameters.modelPath));
+			processCNFResult(execute(() -> new HybridEncoder(parameters.hybridClauseLimit).encode(formula)),
+				arena -> arena);
+		}
+
+		@Override
+		String getSettings() {
+			return "clauseLimit=" + parameters.hybridClauseLimit;
+		}
+	}
+
+	public static class TseytinArenaParallel extends Transformation {
+		private static final long serialVersionUID = 4619258833071458226L;
+
+		@Override
+		void transform() {
 			Formula formula = readFormula(Paths.get(parameters.modelPath));
-			processFormulaResult(executeTransformer(formula, new CNFTransformer()));
+			processCNFResult(execute(() -> new ParallelTseytinEncoder(parameters.threads).encode(formula)),
+				arena -> arena);
 		}
 	}
 }
@@ -0,0 +1,149 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import java.io.*;
+import java.math.*;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * Caches transformed CNFs by model, transformation, and settings. Entries are
+ * never evicted.
+ */
+public class TransformationCache {
+	private static final String STATISTICS_FILE = "statistics.properties";
+	private static final String TIME = "time", VARIABLES = "variables", CLAUSES = "clauses";
+	private static final String[] PREPROCESSING = { "preprocessTime", "preprocessVariables",
+		"preprocessClauses" };
+
+	private final Path entryPath;
+	private Properties statistics;
+
+	public TransformationCache(Path cachePath, Path modelPath, String transformation, String settings)
+		throws IOException {
+		entryPath = cachePath.resolve(getKey(modelPath, transformation, settings));
+	}
+
+	private static String getKey(Path modelPath, String transformation, String settings) throws IOException {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(Files.readAllBytes(modelPath));
+			digest.update(transformation.getBytes());
+			digest.update(settings.getBytes());
+			return String.format("%064x", new BigInteger(1, digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public boolean contains() {
+		return getStatistics() != null;
+	}
+
+	public long getTime() {
+		return Long.parseLong(getStatistics().getProperty(TIME));
+	}
+
+	public long getVariables() {
+		return Long.parseLong(getStatistics().getProperty(VARIABLES));
+	}
+
+	public long getClauses() {
+		return Long.parseLong(getStatistics().getProperty(CLAUSES));
+	}
+
+	public long[] getPreprocessing() {
+		if (getStatistics().getProperty(PREPROCESSING[0]) == null) {
+			return null;
+		}
+		return Arrays.stream(PREPROCESSING).mapToLong(key -> Long.parseLong(getStatistics().getProperty(key)))
+			.toArray();
+	}
+
+	private Properties getStatistics() {
+		if (statistics == null) {
+			final Path statisticsPath = entryPath.resolve(STATISTICS_FILE);
+			if (Files.exists(statisticsPath)) {
+				try (Reader reader = Files.newBufferedReader(statisticsPath)) {
+					final Properties properties = new Properties();
+					properties.load(reader);
+					statistics = properties;
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return statistics;
+	}
+
+	public void restore(Map<String, Path> files) throws IOException {
+		for (Map.Entry<String, Path> file : files.entrySet()) {
+			final Path cachedFile = entryPath.resolve(file.getKey());
+			if (Files.exists(cachedFile)) {
+				Files.copy(cachedFile, file.getValue(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+	}
+
+	public void add(String suffix, Path file) throws IOException {
+		if (contains() && Files.exists(file)) {
+			final Path temporaryFile = Files.createTempFile(entryPath, suffix, null);
+			Files.copy(file, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+			Files.move(temporaryFile, entryPath.resolve(suffix), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	public void store(Map<String, Path> files, long time, long variables, long clauses, long[] preprocessing)
+		throws IOException {
+		Files.createDirectories(entryPath.getParent());
+		final Path temporaryPath = Files.createTempDirectory(entryPath.getParent(), entryPath.getFileName()
+			.toString());
+		for (Map.Entry<String, Path> file : files.entrySet()) {
+			if (Files.exists(file.getValue())) {
+				Files.copy(file.getValue(), temporaryPath.resolve(file.getKey()));
+			}
+		}
+		final Properties properties = new Properties();
+		properties.setProperty(TIME, String.valueOf(time));
+		properties.setProperty(VARIABLES, String.valueOf(variables));
+		properties.setProperty(CLAUSES, String.valueOf(clauses));
+		if (preprocessing != null) {
+			for (int i = 0; i < PREPROCESSING.length; i++) {
+				properties.setProperty(PREPROCESSING[i], String.valueOf(preprocessing[i]));
+			}
+		}
+		try (Writer writer = Files.newBufferedWriter(temporaryPath.resolve(STATISTICS_FILE))) {
+			properties.store(writer, null);
+		}
+		try {
+			Files.move(temporaryPath, entryPath, StandardCopyOption.ATOMIC_MOVE);
+			statistics = properties;
+		} catch (IOException e) {
+			// another job has already stored this entry
+			Files.walk(temporaryPath).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.zip.*;
+
+/**
+ * Binary CNF format storing names and clauses as variable-length integers,
+ * optionally deflated.
+ */
+public class BinaryCNFFormat {
+	public static final String SUFFIX = "bcnf";
+
+	private static final byte[] MAGIC = { 'B', 'C', 'N', 'F' };
+	private static final byte VERSION = 1;
+	private static final byte COMPRESSED = 1;
+
+	public static void write(ClauseArena arena, Path path, boolean compress) throws IOException {
+		try (OutputStream fileOutputStream = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+			fileOutputStream.write(MAGIC);
+			fileOutputStream.write(VERSION);
+			fileOutputStream.write(compress ? COMPRESSED : 0);
+			final OutputStream outputStream = compress ? new DeflaterOutputStream(fileOutputStream,
+				new Deflater(Deflater.BEST_SPEED), 1 << 16) : fileOutputStream;
+			writeVarInt(outputStream, arena.getVariableCount());
+			for (final String name : arena.getNames()) {
+				final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(outputStream, bytes.length);
+				outputStream.write(bytes);
+			}
+			writeVarInt(outputStream, arena.getClauseCount());
+			for (int i = 0; i < arena.getClauseCount(); i++) {
+				final int end = arena.getClauseEnd(i);
+				writeVarInt(outputStream, end - arena.getClauseStart(i));
+				for (int j = arena.getClauseStart(i); j < end; j++) {
+					writeVarInt(outputStream, zigZag(arena.getLiteral(j)));
+				}
+			}
+			if (outputStream instanceof DeflaterOutputStream) {
+				((DeflaterOutputStream) outputStream).finish();
+			}
+		}
+	}
+
+	public static ClauseArena read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("binary CNF too large to be mapped: " + path);
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			for (final byte magic : MAGIC) {
+				if (buffer.get() != magic) {
+					throw new IOException("not a binary CNF: " + path);
+				}
+			}
+			if (buffer.get() != VERSION) {
+				throw new IOException("unsupported binary CNF version: " + path);
+			}
+			if ((buffer.get() & COMPRESSED) != 0) {
+				buffer = inflate(buffer);
+			}
+			return read(buffer);
+		}
+	}
+
+	private static ByteBuffer inflate(ByteBuffer buffer) throws IOException {
+		final Inflater inflater = new Inflater();
+		inflater.setInput(buffer);
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(buffer.remaining() * 4);
+		final byte[] chunk = new byte[1 << 16];
+		try {
+			while (!inflater.finished()) {
+				final int length = inflater.inflate(chunk);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("truncated binary CNF");
+				}
+				outputStream.write(chunk, 0, length);
+			}
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			inflater.end();
+		}
+		return ByteBuffer.wrap(outputStream.toByteArray());
+	}
+
+	private static ClauseArena read(ByteBuffer buffer) {
+		final int variableCount = readVarInt(buffer);
+		final String[] names = new String[variableCount];
+		for (int i = 0; i < variableCount; i++) {
+			final byte[] bytes = new byte[readVarInt(buffer)];
+			buffer.get(bytes);
+			names[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+		final int clauseCount = readVarInt(buffer);
+		final ClauseArena arena = new ClauseArena(buffer.remaining(), clauseCount);
+		for (final String name : names) {
+			arena.addVariable(name);
+		}
+		int[] clause = new int[16];
+		for (int i = 0; i < clauseCount; i++) {
+			final int size = readVarInt(buffer);
+			if (clause.length < size) {
+				clause = new int[size];
+			}
+			for (int j = 0; j < size; j++) {
+				clause[j] = unZigZag(readVarInt(buffer));
+			}
+			arena.addClause(clause, 0, size);
+		}
+		return arena;
+	}
+
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarInt(OutputStream outputStream, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			outputStream.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		outputStream.write(value);
+	}
+
+	private static int readVarInt(ByteBuffer buffer) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
@@ -0,0 +1,332 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Simplifies a CNF by unit propagation, subsumption, and elimination of
+ * auxiliary variables, keeping the models of the other variables.
+ */
+public class CNFPreprocessor {
+	private static final int MAXIMUM_RESOLUTION_PAIRS = 1 << 12;
+
+	private final ClauseArena arena;
+	private final int variableCount;
+	private final boolean[] auxiliary;
+	private final List<int[]> clauses = new ArrayList<>();
+	private int[][] occurrences;
+	private int[] occurrenceSizes;
+	private final byte[] values;
+	private final boolean[] eliminated;
+	private final ArrayDeque<Integer> units = new ArrayDeque<>();
+	private boolean unsatisfiable;
+
+	private final int[] marks;
+	private int stamp;
+
+	public CNFPreprocessor(ClauseArena arena) {
+		this.arena = arena;
+		variableCount = arena.getVariableCount();
+		auxiliary = new boolean[variableCount + 1];
+		for (int variable = 1; variable <= variableCount; variable++) {
+			auxiliary[variable] = isAuxiliary(arena.getName(variable));
+		}
+		occurrences = new int[2 * variableCount + 1][];
+		occurrenceSizes = new int[2 * variableCount + 1];
+		values = new byte[variableCount + 1];
+		eliminated = new boolean[variableCount + 1];
+		marks = new int[2 * variableCount + 1];
+	}
+
+	public static boolean isAuxiliary(String name) {
+		return name != null && (name.startsWith(TseytinEncoder.AUXILIARY_PREFIX) || name.startsWith("k!"));
+	}
+
+	public ClauseArena preprocess() {
+		for (int clause = 0; clause < arena.getClauseCount() && !unsatisfiable; clause++) {
+			addClause(arena.getClause(clause));
+		}
+		propagateUnits();
+		if (!unsatisfiable) {
+			removeSubsumedClauses();
+			eliminateVariables();
+		}
+		return unsatisfiable ? createUnsatisfiableArena() : createArena();
+	}
+
+	private void checkCancelled() {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException();
+		}
+	}
+
+	private void addClause(int[] literals) {
+		stamp++;
+		int size = 0;
+		final int[] clause = new int[literals.length];
+		for (final int literal : literals) {
+			final int value = values[Math.abs(literal)];
+			if (value == Integer.signum(literal) || marks[-literal + variableCount] == stamp) {
+				return;
+			}
+			if (value == 0 && marks[literal + variableCount] != stamp) {
+				marks[literal + variableCount] = stamp;
+				clause[size++] = literal;
+			}
+		}
+		if (size == 0) {
+			unsatisfiable = true;
+			return;
+		}
+		final int id = clauses.size();
+		clauses.add(Arrays.copyOf(clause, size));
+		for (int i = 0; i < size; i++) {
+			addOccurrence(clause[i], id);
+		}
+		if (size == 1) {
+			units.add(clause[0]);
+		}
+	}
+
+	private void addOccurrence(int literal, int clause) {
+		final int i = literal + variableCount;
+		if (occurrences[i] == null) {
+			occurrences[i] = new int[4];
+		} else if (occurrenceSizes[i] == occurrences[i].length) {
+			occurrences[i] = Arrays.copyOf(occurrences[i], occurrenceSizes[i] << 1);
+		}
+		occurrences[i][occurrenceSizes[i]++] = clause;
+	}
+
+	private int[] getOccurrences(int literal) {
+		final int i = literal + variableCount;
+		int size = 0;
+		for (int j = 0; j < occurrenceSizes[i]; j++) {
+			final int clause = occurrences[i][j];
+			if (contains(clauses.get(clause), literal)) {
+				occurrences[i][size++] = clause;
+			}
+		}
+		occurrenceSizes[i] = size;
+		return size == 0 ? new int[0] : Arrays.copyOf(occurrences[i], size);
+	}
+
+	private static boolean contains(int[] clause, int literal) {
+		if (clause != null) {
+			for (final int other : clause) {
+				if (other == literal) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void propagateUnits() {
+		while (!units.isEmpty() && !unsatisfiable) {
+			checkCancelled();
+			final int literal = units.poll();
+			final int variable = Math.abs(literal);
+			if (values[variable] != 0) {
+				unsatisfiable = values[variable] != Integer.signum(literal);
+				continue;
+			}
+			values[variable] = (byte) Integer.signum(literal);
+			for (final int clause : getOccurrences(literal)) {
+				clauses.set(clause, null);
+			}
+			for (final int clause : getOccurrences(-literal)) {
+				final int[] oldClause = clauses.get(clause);
+				final int[] newClause = new int[oldClause.length - 1];
+				int size = 0;
+				for (final int other : oldClause) {
+					if (other != -literal) {
+						newClause[size++] = other;
+					}
+				}
+				clauses.set(clause, newClause);
+				if (size == 0) {
+					unsatisfiable = true;
+				} else if (size == 1) {
+					units.add(newClause[0]);
+				}
+			}
+		}
+	}
+
+	private void removeSubsumedClauses() {
+		final Integer[] order = new Integer[clauses.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt(clause -> clauses.get(clause) == null ? 0
+			: clauses.get(clause).length));
+		for (final int clause : order) {
+			removeClausesSubsumedBy(clause);
+		}
+	}
+
+	private void removeClausesSubsumedBy(int clause) {
+		final int[] literals = clauses.get(clause);
+		if (literals == null) {
+			return;
+		}
+		checkCancelled();
+		int rarestLiteral = literals[0];
+		for (final int literal : literals) {
+			if (occurrenceSizes[literal + variableCount] < occurrenceSizes[rarestLiteral + variableCount]) {
+				rarestLiteral = literal;
+			}
+		}
+		stamp++;
+		for (final int literal : literals) {
+			marks[literal + variableCount] = stamp;
+		}
+		for (final int other : getOccurrences(rarestLiteral)) {
+			final int[] otherLiterals = clauses.get(other);
+			if (other != clause && otherLiterals.length >= literals.length) {
+				int shared = 0;
+				for (final int literal : otherLiterals) {
+					if (marks[literal + variableCount] == stamp) {
+						shared++;
+					}
+				}
+				if (shared == literals.length) {
+					clauses.set(other, null);
+				}
+			}
+		}
+	}
+
+	private void eliminateVariables() {
+		boolean changed = true;
+		while (changed && !unsatisfiable) {
+			changed = false;
+			for (int variable = 1; variable <= variableCount && !unsatisfiable; variable++) {
+				if (auxiliary[variable] && values[variable] == 0 && !eliminated[variable]) {
+					checkCancelled();
+					changed |= eliminateVariable(variable);
+					propagateUnits();
+				}
+			}
+		}
+	}
+
+	private boolean eliminateVariable(int variable) {
+		final int[] positive = getOccurrences(variable);
+		final int[] negative = getOccurrences(-variable);
+		if (positive.length + negative.length == 0
+			|| (long) positive.length * negative.length > MAXIMUM_RESOLUTION_PAIRS) {
+			return false;
+		}
+		final List<int[]> resolvents = new ArrayList<>();
+		for (final int positiveClause : positive) {
+			for (final int negativeClause : negative) {
+				final int[] resolvent = resolve(clauses.get(positiveClause), clauses.get(negativeClause), variable);
+				if (resolvent != null) {
+					if (resolvents.size() == positive.length + negative.length) {
+						return false;
+					}
+					resolvents.add(resolvent);
+				}
+			}
+		}
+		for (final int clause : positive) {
+			clauses.set(clause, null);
+		}
+		for (final int clause : negative) {
+			clauses.set(clause, null);
+		}
+		eliminated[variable] = true;
+		for (final int[] resolvent : resolvents) {
+			addClause(resolvent);
+		}
+		return true;
+	}
+
+	private int[] resolve(int[] positiveClause, int[] negativeClause, int variable) {
+		stamp++;
+		final int[] resolvent = new int[positiveClause.length + negativeClause.length - 2];
+		int size = 0;
+		for (final int literal : positiveClause) {
+			if (literal != variable) {
+				marks[literal + variableCount] = stamp;
+				resolvent[size++] = literal;
+			}
+		}
+		for (final int literal : negativeClause) {
+			if (literal != -variable) {
+				if (marks[-literal + variableCount] == stamp) {
+					return null;
+				}
+				if (marks[literal + variableCount] != stamp) {
+					resolvent[size++] = literal;
+				}
+			}
+		}
+		return Arrays.copyOf(resolvent, size);
+	}
+
+	private ClauseArena createArena() {
+		final ClauseArena result = new ClauseArena();
+		final int[] newVariables = new int[variableCount + 1];
+		for (int variable = 1; variable <= variableCount; variable++) {
+			if (!auxiliary[variable] || (values[variable] == 0 && !eliminated[variable])) {
+				newVariables[variable] = result.addVariable(arena.getName(variable));
+			}
+		}
+		for (int variable = 1; variable <= variableCount; variable++) {
+			if (!auxiliary[variable] && values[variable] != 0) {
+				result.addClause(values[variable] * newVariables[variable]);
+			}
+		}
+		for (final int[] clause : clauses) {
+			if (clause != null) {
+				final int[] newClause = new int[clause.length];
+				for (int i = 0; i < clause.length; i++) {
+					newClause[i] = Integer.signum(clause[i]) * newVariables[Math.abs(clause[i])];
+				}
+				result.addClause(newClause);
+			}
+		}
+		return result;
+	}
+
+	private ClauseArena createUnsatisfiableArena() {
+		final ClauseArena result = new ClauseArena();
+		for (int variable = 1; variable <= variableCount; variable++) {
+			if (!auxiliary[variable]) {
+				result.addVariable(arena.getName(variable));
+			}
+		}
+		if (result.getVariableCount() > 0) {
+			result.addClause(1);
+			result.addClause(-1);
+		} else {
+			result.addClause();
+		}
+		return result;
+	}
+}
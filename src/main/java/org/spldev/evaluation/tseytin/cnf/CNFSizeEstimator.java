@@ -0,0 +1,92 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+/**
+ * Estimates the number of clauses of distributing a formula, ignoring
+ * tautologies.
+ */
+public class CNFSizeEstimator {
+	private final long maximum;
+	private final Map<Formula, long[]> estimates = new IdentityHashMap<>();
+
+	public CNFSizeEstimator(long maximum) {
+		this.maximum = maximum;
+	}
+
+	public long estimate(Formula formula, boolean positive) {
+		if (formula instanceof Literal) {
+			return 1;
+		}
+		long[] estimate = estimates.get(formula);
+		if (estimate == null) {
+			final List<? extends Formula> children = formula.getChildren();
+			if (formula instanceof Not) {
+				estimate = new long[] { estimate(children.get(0), false), estimate(children.get(0), true) };
+			} else if (formula instanceof And || formula instanceof Or) {
+				long sumPositive = 0, productPositive = 1, sumNegative = 0, productNegative = 1;
+				for (final Formula child : children) {
+					final long childPositive = estimate(child, true), childNegative = estimate(child, false);
+					sumPositive = add(sumPositive, childPositive);
+					productPositive = multiply(productPositive, childPositive);
+					sumNegative = add(sumNegative, childNegative);
+					productNegative = multiply(productNegative, childNegative);
+				}
+				estimate = formula instanceof And ? new long[] { sumPositive, productNegative }
+					: new long[] { productPositive, sumNegative };
+			} else if (formula instanceof Implies || formula instanceof Biimplies) {
+				final long leftPositive = estimate(children.get(0), true);
+				final long leftNegative = estimate(children.get(0), false);
+				final long rightPositive = estimate(children.get(1), true);
+				final long rightNegative = estimate(children.get(1), false);
+				estimate = formula instanceof Implies
+					? new long[] { multiply(leftNegative, rightPositive), add(leftPositive, rightNegative) }
+					: new long[] {
+						add(multiply(leftNegative, rightPositive), multiply(leftPositive, rightNegative)),
+						multiply(add(leftPositive, rightNegative), add(leftNegative, rightPositive)) };
+			} else {
+				throw new IllegalArgumentException("unsupported operator " + formula.getClass().getSimpleName());
+			}
+			estimates.put(formula, estimate);
+		}
+		return positive ? estimate[0] : estimate[1];
+	}
+
+	public void clear() {
+		estimates.clear();
+	}
+
+	public long add(long summand1, long summand2) {
+		return summand1 > maximum - summand2 ? maximum : summand1 + summand2;
+	}
+
+	public long multiply(long factor1, long factor2) {
+		return factor1 != 0 && factor2 > maximum / factor1 ? maximum : factor1 * factor2;
+	}
+}
@@ -0,0 +1,197 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+
+/**
+ * Stores all clauses of a CNF in a single int array.
+ */
+public class ClauseArena {
+	private final List<String> names = new ArrayList<>();
+	private final Map<String, Integer> indices = new HashMap<>();
+	private int[] literals;
+	private int[] clauseEnds;
+	private int literalCount;
+	private int clauseCount;
+
+	public ClauseArena() {
+		this(1 << 10, 1 << 8);
+	}
+
+	public ClauseArena(int literalCapacity, int clauseCapacity) {
+		literals = new int[Math.max(1, literalCapacity)];
+		clauseEnds = new int[Math.max(1, clauseCapacity)];
+	}
+
+	public static ClauseArena fromFormula(Formula formula) {
+		final ClauseArena arena = new ClauseArena();
+		VariableMap.fromExpression(formula).getNames().stream()
+			.filter(Objects::nonNull)
+			.forEach(arena::getVariable);
+		final List<? extends Formula> clauses = formula instanceof And ? formula.getChildren()
+			: Collections.singletonList(formula);
+		int[] clause = new int[16];
+		for (final Formula clauseFormula : clauses) {
+			final List<? extends Formula> clauseLiterals = clauseFormula instanceof Literal ? Collections
+				.singletonList(clauseFormula) : clauseFormula.getChildren();
+			if (clause.length < clauseLiterals.size()) {
+				clause = new int[clauseLiterals.size()];
+			}
+			int size = 0;
+			for (final Formula literalFormula : clauseLiterals) {
+				final Literal literal = (Literal) literalFormula;
+				final int variable = arena.getVariable(literal.getName());
+				clause[size++] = literal.isPositive() ? variable : -variable;
+			}
+			arena.addClause(clause, 0, size);
+		}
+		return arena;
+	}
+
+	public static ClauseArena fromCNF(CNF cnf) {
+		final ClauseArena arena = new ClauseArena();
+		final IVariables variables = cnf.getVariables();
+		for (int i = 1; i <= variables.maxVariableID(); i++) {
+			arena.addVariable(variables.getName(i));
+		}
+		for (final LiteralSet clause : cnf.getClauses()) {
+			arena.addClause(clause.getLiterals());
+		}
+		return arena;
+	}
+
+	public int getVariable(String name) {
+		final Integer index = indices.get(name);
+		return index != null ? index : addVariable(name);
+	}
+
+	/**
+	 * Returns 0 for unknown variables, without adding them.
+	 */
+	public int getIndex(String name) {
+		final Integer index = indices.get(name);
+		return index != null ? index : 0;
+	}
+
+	public int addVariable(String name) {
+		names.add(name);
+		final int index = names.size();
+		if (name != null) {
+			indices.put(name, index);
+		}
+		return index;
+	}
+
+	public void addClause(int... clause) {
+		addClause(clause, 0, clause.length);
+	}
+
+	public void addClause(int[] clause, int from, int to) {
+		final int size = to - from;
+		ensureLiteralCapacity(literalCount + size);
+		System.arraycopy(clause, from, literals, literalCount, size);
+		literalCount += size;
+		if (clauseCount == clauseEnds.length) {
+			clauseEnds = Arrays.copyOf(clauseEnds, clauseEnds.length << 1);
+		}
+		clauseEnds[clauseCount++] = literalCount;
+	}
+
+	private void ensureLiteralCapacity(int capacity) {
+		if (capacity > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(capacity, literals.length << 1));
+		}
+	}
+
+	public List<String> getNames() {
+		return Collections.unmodifiableList(names);
+	}
+
+	public String getName(int variable) {
+		return names.get(variable - 1);
+	}
+
+	public int getVariableCount() {
+		return names.size();
+	}
+
+	public int getClauseCount() {
+		return clauseCount;
+	}
+
+	public int getLiteralCount() {
+		return literalCount;
+	}
+
+	public int getClauseStart(int clause) {
+		return clause == 0 ? 0 : clauseEnds[clause - 1];
+	}
+
+	public int getClauseEnd(int clause) {
+		return clauseEnds[clause];
+	}
+
+	public int getLiteral(int position) {
+		return literals[position];
+	}
+
+	public int[] getClause(int clause) {
+		return Arrays.copyOfRange(literals, getClauseStart(clause), getClauseEnd(clause));
+	}
+
+	public CNF toCNF() {
+		final ClauseList clauses = new ClauseList(clauseCount);
+		for (int i = 0; i < clauseCount; i++) {
+			clauses.add(new LiteralSet(getClause(i)));
+		}
+		return new CNF(new Variables(names), clauses);
+	}
+
+	public Formula toFormula() {
+		final VariableMap variables = VariableMap.fromNames(names);
+		final Literal[] positiveLiterals = new Literal[names.size() + 1];
+		final Literal[] negativeLiterals = new Literal[names.size() + 1];
+		final List<Formula> clauses = new ArrayList<>(clauseCount);
+		for (int i = 0; i < clauseCount; i++) {
+			final List<Formula> clause = new ArrayList<>(getClauseEnd(i) - getClauseStart(i));
+			for (int j = getClauseStart(i); j < getClauseEnd(i); j++) {
+				final int variable = Math.abs(literals[j]);
+				if (positiveLiterals[variable] == null) {
+					positiveLiterals[variable] = variables.createLiteral(getName(variable));
+					negativeLiterals[variable] = positiveLiterals[variable].flip();
+				}
+				clause.add(literals[j] > 0 ? positiveLiterals[variable] : negativeLiterals[variable]);
+			}
+			clauses.add(new Or(clause));
+		}
+		return new And(clauses);
+	}
+}
@@ -0,0 +1,145 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+
+public class DimacsStreamReader implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private byte[] line = new byte[256];
+
+	public DimacsStreamReader(Path path) throws IOException {
+		this(FileChannel.open(path, StandardOpenOption.READ));
+	}
+
+	public DimacsStreamReader(ReadableByteChannel channel) {
+		this.channel = channel;
+		buffer.flip();
+	}
+
+	public static ClauseArena read(Path path) throws IOException {
+		try (DimacsStreamReader reader = new DimacsStreamReader(path)) {
+			return reader.read();
+		}
+	}
+
+	public ClauseArena read() throws IOException {
+		final Map<Integer, String> names = new HashMap<>();
+		int variableCount = 0;
+		int[] literals = new int[1 << 10];
+		int literalCount = 0;
+		int[] clauseEnds = new int[1 << 8];
+		int clauseCount = 0;
+		int b;
+		while ((b = readByte()) >= 0) {
+			if (b == 'c' || b == 'p') {
+				final String text = readLine();
+				final StringTokenizer tokens = new StringTokenizer(text);
+				if (b == 'c') {
+					if (tokens.hasMoreTokens()) {
+						final String index = tokens.nextToken();
+						if (tokens.hasMoreTokens() && index.chars().allMatch(Character::isDigit)) {
+							names.put(Integer.parseInt(index), text.substring(text.indexOf(index) + index.length())
+								.trim());
+						}
+					}
+				} else if (tokens.countTokens() >= 3) {
+					tokens.nextToken();
+					variableCount = Integer.parseInt(tokens.nextToken());
+				}
+			} else if (b == '-' || (b >= '0' && b <= '9')) {
+				final boolean negative = b == '-';
+				int number = negative ? 0 : b - '0';
+				// the byte after the number is whitespace, so it can be skipped
+				while ((b = readByte()) >= '0' && b <= '9') {
+					number = number * 10 + (b - '0');
+				}
+				if (number == 0) {
+					if (clauseCount == clauseEnds.length) {
+						clauseEnds = Arrays.copyOf(clauseEnds, clauseCount << 1);
+					}
+					clauseEnds[clauseCount++] = literalCount;
+				} else {
+					if (literalCount == literals.length) {
+						literals = Arrays.copyOf(literals, literalCount << 1);
+					}
+					literals[literalCount++] = negative ? -number : number;
+					variableCount = Math.max(variableCount, number);
+				}
+			}
+		}
+		final ClauseArena arena = new ClauseArena(literalCount, clauseCount);
+		for (int i = 1; i <= variableCount; i++) {
+			arena.addVariable(names.getOrDefault(i, String.valueOf(i)));
+		}
+		int start = 0;
+		for (int i = 0; i < clauseCount; i++) {
+			arena.addClause(literals, start, clauseEnds[i]);
+			start = clauseEnds[i];
+		}
+		return arena;
+	}
+
+	private String readLine() throws IOException {
+		int length = 0;
+		int b;
+		while ((b = readByte()) >= 0 && b != '\n') {
+			if (length == line.length) {
+				line = Arrays.copyOf(line, length << 1);
+			}
+			line[length++] = (byte) b;
+		}
+		if (length > 0 && line[length - 1] == '\r') {
+			length--;
+		}
+		return new String(line, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private int readByte() throws IOException {
+		if (!buffer.hasRemaining()) {
+			buffer.clear();
+			if (channel.read(buffer) < 0) {
+				buffer.flip();
+				return -1;
+			}
+			buffer.flip();
+			if (!buffer.hasRemaining()) {
+				return readByte();
+			}
+		}
+		return buffer.get() & 0xff;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,138 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+
+public class DimacsStreamWriter implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int MAX_NUMBER_LENGTH = 11;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private final byte[] digits = new byte[MAX_NUMBER_LENGTH];
+
+	public DimacsStreamWriter(Path path) throws IOException {
+		this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	public DimacsStreamWriter(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	public static void write(ClauseArena arena, Path path) throws IOException {
+		try (DimacsStreamWriter writer = new DimacsStreamWriter(path)) {
+			writer.write(arena);
+		}
+	}
+
+	public void write(ClauseArena arena) throws IOException {
+		int index = 1;
+		for (final String name : arena.getNames()) {
+			writeVariable(index++, name);
+		}
+		writeProblem(arena.getVariableCount(), arena.getClauseCount());
+		for (int i = 0; i < arena.getClauseCount(); i++) {
+			final int end = arena.getClauseEnd(i);
+			for (int j = arena.getClauseStart(i); j < end; j++) {
+				writeNumber(arena.getLiteral(j));
+				writeByte((byte) ' ');
+			}
+			writeByte((byte) '0');
+			writeByte((byte) '\n');
+		}
+	}
+
+	private void writeVariable(int index, String name) throws IOException {
+		writeBytes(new byte[] { 'c', ' ' });
+		writeNumber(index);
+		writeByte((byte) ' ');
+		writeBytes(name.getBytes(StandardCharsets.UTF_8));
+		writeByte((byte) '\n');
+	}
+
+	private void writeProblem(int variableCount, int clauseCount) throws IOException {
+		writeBytes(new byte[] { 'p', ' ', 'c', 'n', 'f', ' ' });
+		writeNumber(variableCount);
+		writeByte((byte) ' ');
+		writeNumber(clauseCount);
+		writeByte((byte) '\n');
+	}
+
+	private void writeNumber(int number) throws IOException {
+		if (number < 0) {
+			writeByte((byte) '-');
+			number = -number;
+		}
+		int position = MAX_NUMBER_LENGTH;
+		do {
+			digits[--position] = (byte) ('0' + (number % 10));
+			number /= 10;
+		} while (number != 0);
+		ensureRemaining(MAX_NUMBER_LENGTH - position);
+		buffer.put(digits, position, MAX_NUMBER_LENGTH - position);
+	}
+
+	private void writeByte(byte b) throws IOException {
+		ensureRemaining(1);
+		buffer.put(b);
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			ensureRemaining(1);
+			final int length = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	private void ensureRemaining(int length) throws IOException {
+		if (buffer.remaining() < length) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
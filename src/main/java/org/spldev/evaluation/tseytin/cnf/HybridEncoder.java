@@ -0,0 +1,173 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+/**
+ * Distributes subformulas unless that exceeds the clause limit, in which case
+ * the largest operands are replaced by auxiliary variables.
+ */
+public class HybridEncoder extends TseytinEncoder {
+	private static final int[][] EMPTY_CLAUSE = { {} };
+
+	private final long clauseLimit;
+	private final CNFSizeEstimator estimator;
+
+	public HybridEncoder(long clauseLimit) {
+		this.clauseLimit = Math.max(1, clauseLimit);
+		estimator = new CNFSizeEstimator(this.clauseLimit == Long.MAX_VALUE ? Long.MAX_VALUE
+			: this.clauseLimit + 1);
+	}
+
+	@Override
+	protected void encodeConstraint(Formula formula) {
+		checkCancelled();
+		if (formula instanceof And) {
+			for (final Formula child : formula.getChildren()) {
+				encodeConstraint(child);
+			}
+			return;
+		}
+		for (final int[] clause : distribute(formula, true)) {
+			arena.addClause(clause);
+		}
+		estimator.clear();
+	}
+
+	private List<int[]> distribute(Formula formula, boolean positive) {
+		if (formula instanceof Literal) {
+			final int literal = encodeSubformula(formula);
+			return Collections.singletonList(new int[] { positive ? literal : -literal });
+		}
+		final List<? extends Formula> children = formula.getChildren();
+		if (formula instanceof Not) {
+			return distribute(children.get(0), !positive);
+		} else if (formula instanceof And || formula instanceof Or) {
+			final boolean[] polarities = new boolean[children.size()];
+			Arrays.fill(polarities, positive);
+			return (formula instanceof And) == positive ? concatenate(children, polarities)
+				: multiply(children, polarities);
+		} else if (formula instanceof Implies) {
+			return positive ? multiply(children, new boolean[] { false, true })
+				: concatenate(children, new boolean[] { true, false });
+		} else if (formula instanceof Biimplies) {
+			if (estimator.estimate(formula, positive) > clauseLimit) {
+				return Collections.singletonList(new int[] { define(formula, positive) });
+			}
+			final List<int[]> left = positive ? multiply(children, new boolean[] { false, true })
+				: concatenate(children, new boolean[] { true, false });
+			final List<int[]> right = positive ? multiply(children, new boolean[] { true, false })
+				: concatenate(children, new boolean[] { false, true });
+			return positive ? concatenate(left, right) : multiply(left, right);
+		} else {
+			throw new IllegalArgumentException("unsupported operator " + formula.getClass().getSimpleName());
+		}
+	}
+
+	private List<int[]> concatenate(List<? extends Formula> operands, boolean[] polarities) {
+		final List<int[]> clauses = new ArrayList<>();
+		for (int i = 0; i < polarities.length; i++) {
+			clauses.addAll(distribute(operands.get(i), polarities[i]));
+		}
+		return clauses;
+	}
+
+	private static List<int[]> concatenate(List<int[]> clauses1, List<int[]> clauses2) {
+		final List<int[]> clauses = new ArrayList<>(clauses1);
+		clauses.addAll(clauses2);
+		return clauses;
+	}
+
+	private List<int[]> multiply(List<? extends Formula> operands, boolean[] polarities) {
+		final long[] operandEstimates = new long[polarities.length];
+		for (int i = 0; i < polarities.length; i++) {
+			operandEstimates[i] = estimator.estimate(operands.get(i), polarities[i]);
+		}
+		final boolean[] replaced = new boolean[polarities.length];
+		while (product(operandEstimates) > clauseLimit) {
+			int largest = 0;
+			for (int i = 1; i < operandEstimates.length; i++) {
+				if (operandEstimates[i] > operandEstimates[largest]) {
+					largest = i;
+				}
+			}
+			replaced[largest] = true;
+			operandEstimates[largest] = 1;
+		}
+		List<int[]> clauses = Arrays.asList(EMPTY_CLAUSE);
+		for (int i = 0; i < polarities.length; i++) {
+			clauses = multiply(clauses, replaced[i]
+				? Collections.singletonList(new int[] { define(operands.get(i), polarities[i]) })
+				: distribute(operands.get(i), polarities[i]));
+		}
+		return clauses;
+	}
+
+	private static List<int[]> multiply(List<int[]> clauses1, List<int[]> clauses2) {
+		final List<int[]> clauses = new ArrayList<>(clauses1.size() * clauses2.size());
+		for (final int[] clause1 : clauses1) {
+			for (final int[] clause2 : clauses2) {
+				final int[] clause = merge(clause1, clause2);
+				if (clause != null) {
+					clauses.add(clause);
+				}
+			}
+		}
+		return clauses;
+	}
+
+	private static int[] merge(int[] clause1, int[] clause2) {
+		final int[] literals = Arrays.copyOf(clause1, clause1.length + clause2.length);
+		System.arraycopy(clause2, 0, literals, clause1.length, clause2.length);
+		Arrays.sort(literals);
+		int size = 0;
+		for (final int literal : literals) {
+			if (size > 0 && literals[size - 1] == literal) {
+				continue;
+			}
+			if (literal > 0 && Arrays.binarySearch(literals, 0, size, -literal) >= 0) {
+				return null;
+			}
+			literals[size++] = literal;
+		}
+		return size == literals.length ? literals : Arrays.copyOf(literals, size);
+	}
+
+	private int define(Formula formula, boolean positive) {
+		final int literal = encodeSubformula(formula);
+		return positive ? literal : -literal;
+	}
+
+	private long product(long[] factors) {
+		long product = 1;
+		for (final long factor : factors) {
+			product = estimator.multiply(product, factor);
+		}
+		return product;
+	}
+}
@@ -0,0 +1,159 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.compound.*;
+import org.spldev.formula.structure.transform.*;
+
+/**
+ * Encodes chunks of the top-level conjunction in parallel, with the same
+ * result as {@link TseytinEncoder}.
+ */
+public class ParallelTseytinEncoder extends TseytinEncoder {
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final int threads;
+
+	public ParallelTseytinEncoder(int threads) {
+		this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+	}
+
+	@Override
+	public ClauseArena encode(Formula formula) {
+		thread = Thread.currentThread();
+		final ClauseArena variables = createVariables(formula);
+		final List<Formula> constraints = new ArrayList<>();
+		addConstraints(NormalForms.simplifyForNF(formula), constraints);
+		final int chunkSize = Math.max(1, constraints.size() / (threads * CHUNKS_PER_THREAD));
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			return merge(variables, pool.invoke(new EncodeTask(thread, variables, constraints, 0,
+				constraints.size(), chunkSize)));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static void addConstraints(Formula formula, List<Formula> constraints) {
+		if (formula instanceof And) {
+			for (final Formula child : formula.getChildren()) {
+				addConstraints(child, constraints);
+			}
+		} else {
+			constraints.add(formula);
+		}
+	}
+
+	private static ClauseArena merge(ClauseArena variables, List<ChunkEncoder> chunks) {
+		final int variableCount = variables.getVariableCount();
+		int auxiliaryOffset = 0;
+		for (final ChunkEncoder chunk : chunks) {
+			for (int i = 0; i < chunk.auxiliaryCount; i++) {
+				variables.addVariable(AUXILIARY_PREFIX + (auxiliaryOffset + i));
+			}
+			final ClauseArena clauses = chunk.arena;
+			int[] clause = new int[16];
+			for (int i = 0; i < clauses.getClauseCount(); i++) {
+				final int start = clauses.getClauseStart(i);
+				final int size = clauses.getClauseEnd(i) - start;
+				if (clause.length < size) {
+					clause = new int[size];
+				}
+				for (int j = 0; j < size; j++) {
+					final int literal = clauses.getLiteral(start + j);
+					clause[j] = Math.abs(literal) <= variableCount ? literal
+						: literal > 0 ? literal + auxiliaryOffset : literal - auxiliaryOffset;
+				}
+				variables.addClause(clause, 0, size);
+			}
+			auxiliaryOffset += chunk.auxiliaryCount;
+		}
+		return variables;
+	}
+
+	private static class EncodeTask extends RecursiveTask<List<ChunkEncoder>> {
+		private static final long serialVersionUID = 1L;
+
+		private final Thread thread;
+		private final ClauseArena variables;
+		private final List<Formula> constraints;
+		private final int from, to, chunkSize;
+
+		EncodeTask(Thread thread, ClauseArena variables, List<Formula> constraints, int from, int to,
+			int chunkSize) {
+			this.thread = thread;
+			this.variables = variables;
+			this.constraints = constraints;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected List<ChunkEncoder> compute() {
+			if (to - from <= chunkSize) {
+				final ChunkEncoder encoder = new ChunkEncoder(thread, variables);
+				for (int i = from; i < to; i++) {
+					encoder.encodeConstraint(constraints.get(i));
+				}
+				return new ArrayList<>(Collections.singletonList(encoder));
+			}
+			final int middle = (from + to) >>> 1;
+			final EncodeTask left = new EncodeTask(thread, variables, constraints, from, middle, chunkSize);
+			final EncodeTask right = new EncodeTask(thread, variables, constraints, middle, to, chunkSize);
+			left.fork();
+			final List<ChunkEncoder> rightChunks = right.compute();
+			final List<ChunkEncoder> chunks = left.join();
+			chunks.addAll(rightChunks);
+			return chunks;
+		}
+	}
+
+	private static class ChunkEncoder extends TseytinEncoder {
+		private final ClauseArena variables;
+
+		ChunkEncoder(Thread thread, ClauseArena variables) {
+			this.thread = thread;
+			this.variables = variables;
+			arena = new ClauseArena();
+		}
+
+		@Override
+		protected int getVariable(String name) {
+			final int index = variables.getIndex(name);
+			if (index == 0) {
+				throw new IllegalArgumentException("unknown variable " + name);
+			}
+			return index;
+		}
+
+		@Override
+		protected int newAuxiliaryVariable() {
+			return variables.getVariableCount() + ++auxiliaryCount;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+/**
+ * Only emits the direction of each definition required by its polarity, so
+ * the model count is not preserved.
+ */
+public class PlaistedGreenbaumEncoder extends TseytinEncoder {
+	private static final int POSITIVE = 1, NEGATIVE = -1, BOTH = 0;
+
+	@Override
+	protected int encodeSubformula(Formula formula) {
+		return encodeSubformula(formula, POSITIVE);
+	}
+
+	private int encodeSubformula(Formula formula, int polarity) {
+		if (formula instanceof Literal) {
+			return super.encodeSubformula(formula);
+		} else if (formula instanceof Not) {
+			return -encodeSubformula(formula.getChildren().get(0), -polarity);
+		} else if (formula instanceof And || formula instanceof Or) {
+			final List<? extends Formula> children = formula.getChildren();
+			final int[] literals = new int[children.size()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = encodeSubformula(children.get(i), polarity);
+			}
+			return formula instanceof And ? defineAnd(literals, polarity)
+				: -defineAnd(negate(literals), -polarity);
+		} else if (formula instanceof Implies) {
+			final int premise = encodeSubformula(formula.getChildren().get(0), -polarity);
+			final int conclusion = encodeSubformula(formula.getChildren().get(1), polarity);
+			return -defineAnd(new int[] { premise, -conclusion }, -polarity);
+		} else if (formula instanceof Biimplies) {
+			final int left = encodeSubformula(formula.getChildren().get(0), BOTH);
+			final int right = encodeSubformula(formula.getChildren().get(1), BOTH);
+			return defineEquivalence(left, right, polarity);
+		} else {
+			throw new IllegalArgumentException("unsupported operator " + formula.getClass().getSimpleName());
+		}
+	}
+
+	private int defineAnd(int[] literals, int polarity) {
+		final int auxiliary = newAuxiliaryVariable();
+		if (polarity != NEGATIVE) {
+			for (final int literal : literals) {
+				addClause(-auxiliary, literal);
+			}
+		}
+		if (polarity != POSITIVE) {
+			final int[] clause = new int[literals.length + 1];
+			clause[0] = auxiliary;
+			for (int i = 0; i < literals.length; i++) {
+				clause[i + 1] = -literals[i];
+			}
+			arena.addClause(clause);
+		}
+		return auxiliary;
+	}
+
+	private int defineEquivalence(int literal1, int literal2, int polarity) {
+		final int auxiliary = newAuxiliaryVariable();
+		if (polarity != NEGATIVE) {
+			arena.addClause(-auxiliary, -literal1, literal2);
+			arena.addClause(-auxiliary, literal1, -literal2);
+		}
+		if (polarity != POSITIVE) {
+			arena.addClause(auxiliary, literal1, literal2);
+			arena.addClause(auxiliary, -literal1, -literal2);
+		}
+		return auxiliary;
+	}
+}
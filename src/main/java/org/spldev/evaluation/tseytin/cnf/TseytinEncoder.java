@@ -0,0 +1,224 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+import org.spldev.formula.structure.transform.*;
+
+public class TseytinEncoder {
+	public static final String AUXILIARY_PREFIX = "__temp__";
+
+	protected ClauseArena arena;
+	protected int auxiliaryCount;
+	protected Thread thread;
+	private int[] clause = new int[16];
+	private Map<Gate, Integer> gates;
+
+	public TseytinEncoder setStructuralHashing(boolean structuralHashing) {
+		gates = structuralHashing ? new HashMap<>() : null;
+		return this;
+	}
+
+	public ClauseArena encode(Formula formula) {
+		thread = Thread.currentThread();
+		arena = createVariables(formula);
+		auxiliaryCount = 0;
+		if (gates != null) {
+			gates.clear();
+		}
+		encodeConstraint(NormalForms.simplifyForNF(formula));
+		return arena;
+	}
+
+	protected static ClauseArena createVariables(Formula formula) {
+		final ClauseArena arena = new ClauseArena();
+		VariableMap.fromExpression(formula).getNames().stream()
+			.filter(Objects::nonNull)
+			.forEach(arena::getVariable);
+		return arena;
+	}
+
+	protected void encodeConstraint(Formula formula) {
+		checkCancelled();
+		if (formula instanceof And) {
+			for (final Formula child : formula.getChildren()) {
+				encodeConstraint(child);
+			}
+		} else if (formula instanceof Or) {
+			final List<? extends Formula> children = formula.getChildren();
+			final int[] literals = new int[children.size()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = encodeSubformula(children.get(i));
+			}
+			arena.addClause(literals);
+		} else {
+			arena.addClause(encodeSubformula(formula));
+		}
+	}
+
+	protected int encodeSubformula(Formula formula) {
+		if (formula instanceof Literal) {
+			final Literal literal = (Literal) formula;
+			final int variable = getVariable(literal.getName());
+			return literal.isPositive() ? variable : -variable;
+		} else if (formula instanceof Not) {
+			return -encodeSubformula(formula.getChildren().get(0));
+		} else if (formula instanceof And || formula instanceof Or) {
+			final List<? extends Formula> children = formula.getChildren();
+			final int[] literals = new int[children.size()];
+			for (int i = 0; i < literals.length; i++) {
+				literals[i] = encodeSubformula(children.get(i));
+			}
+			return formula instanceof And ? defineAnd(literals) : -defineAnd(negate(literals));
+		} else if (formula instanceof Implies) {
+			final int premise = encodeSubformula(formula.getChildren().get(0));
+			final int conclusion = encodeSubformula(formula.getChildren().get(1));
+			return -defineAnd(new int[] { premise, -conclusion });
+		} else if (formula instanceof Biimplies) {
+			final int left = encodeSubformula(formula.getChildren().get(0));
+			final int right = encodeSubformula(formula.getChildren().get(1));
+			return defineEquivalence(left, right);
+		} else {
+			throw new IllegalArgumentException("unsupported operator " + formula.getClass().getSimpleName());
+		}
+	}
+
+	protected int defineAnd(int[] literals) {
+		if (gates != null) {
+			final int[] operands = literals.clone();
+			Arrays.sort(operands);
+			final Gate gate = new Gate(false, operands);
+			final Integer literal = gates.get(gate);
+			if (literal != null) {
+				return literal;
+			}
+			final int auxiliary = addAnd(literals);
+			gates.put(gate, auxiliary);
+			return auxiliary;
+		}
+		return addAnd(literals);
+	}
+
+	private int addAnd(int[] literals) {
+		final int auxiliary = newAuxiliaryVariable();
+		for (final int literal : literals) {
+			addClause(-auxiliary, literal);
+		}
+		ensureClauseCapacity(literals.length + 1);
+		clause[0] = auxiliary;
+		for (int i = 0; i < literals.length; i++) {
+			clause[i + 1] = -literals[i];
+		}
+		arena.addClause(clause, 0, literals.length + 1);
+		return auxiliary;
+	}
+
+	protected int defineEquivalence(int literal1, int literal2) {
+		if (gates != null) {
+			// (l1 <=> l2) equals (|l1| <=> |l2|), negated iff exactly one literal is
+			final int sign = (literal1 < 0) != (literal2 < 0) ? -1 : 1;
+			final int variable1 = Math.abs(literal1), variable2 = Math.abs(literal2);
+			final Gate gate = new Gate(true, new int[] { Math.min(variable1, variable2),
+				Math.max(variable1, variable2) });
+			final Integer literal = gates.get(gate);
+			if (literal != null) {
+				return sign * literal;
+			}
+			final int auxiliary = addEquivalence(variable1, variable2);
+			gates.put(gate, auxiliary);
+			return sign * auxiliary;
+		}
+		return addEquivalence(literal1, literal2);
+	}
+
+	private int addEquivalence(int literal1, int literal2) {
+		final int auxiliary = newAuxiliaryVariable();
+		arena.addClause(-auxiliary, -literal1, literal2);
+		arena.addClause(-auxiliary, literal1, -literal2);
+		arena.addClause(auxiliary, literal1, literal2);
+		arena.addClause(auxiliary, -literal1, -literal2);
+		return auxiliary;
+	}
+
+	protected void checkCancelled() {
+		if (thread != null && thread.isInterrupted()) {
+			throw new CancellationException("encoding was interrupted");
+		}
+	}
+
+	protected int getVariable(String name) {
+		return arena.getVariable(name);
+	}
+
+	protected int newAuxiliaryVariable() {
+		return arena.addVariable(AUXILIARY_PREFIX + auxiliaryCount++);
+	}
+
+	protected void addClause(int literal1, int literal2) {
+		clause[0] = literal1;
+		clause[1] = literal2;
+		arena.addClause(clause, 0, 2);
+	}
+
+	protected static int[] negate(int[] literals) {
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = -literals[i];
+		}
+		return literals;
+	}
+
+	private void ensureClauseCapacity(int size) {
+		if (clause.length < size) {
+			clause = new int[Math.max(size, clause.length << 1)];
+		}
+	}
+
+	private static final class Gate {
+		private final boolean equivalence;
+		private final int[] operands;
+
+		Gate(boolean equivalence, int[] operands) {
+			this.equivalence = equivalence;
+			this.operands = operands;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Arrays.hashCode(operands) + (equivalence ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Gate)) {
+				return false;
+			}
+			final Gate other = (Gate) obj;
+			return equivalence == other.equivalence && Arrays.equals(operands, other.operands);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.evaluation.tseytin.Parameters;
+import org.spldev.evaluation.tseytin.Runner;
+
+public class AnalysisTest {
+	private static final String TIMEOUT = Runner.RESULT_PREFIX + Analysis.TIMEOUT_MARKER;
+
+	private static class TestAnalysis extends Analysis {
+		private static final long serialVersionUID = 1L;
+		private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		TestAnalysis() {
+			setParameters(new Parameters("test", "", "", 0, "", 10_000));
+		}
+
+		@Override
+		public void run() {}
+
+		<T> Result<T> run(Callable<T> method) {
+			return run(method, null);
+		}
+
+		<T> Result<T> run(Callable<T> method, Runnable interruptHandler) {
+			final PrintStream out = System.out, err = System.err;
+			System.setOut(new PrintStream(output, true));
+			System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+			try {
+				return execute(method, null, parameters.timeout, interruptHandler);
+			} finally {
+				System.setOut(out);
+				System.setErr(err);
+			}
+		}
+
+		String getOutput() {
+			return output.toString().trim();
+		}
+	}
+
+	@Test
+	public void recordsFeatureIDESolverTimeout() {
+		final TestAnalysis analysis = new TestAnalysis();
+		assertNull(analysis.run(() -> {
+			throw new de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException();
+		}));
+		assertEquals(TIMEOUT, analysis.getOutput());
+	}
+
+	@Test
+	public void recordsSPLDevSolverTimeout() {
+		final TestAnalysis analysis = new TestAnalysis();
+		assertNull(analysis.run(() -> {
+			throw new org.spldev.analysis.solver.RuntimeTimeoutException();
+		}));
+		assertEquals(TIMEOUT, analysis.getOutput());
+	}
+
+	@Test
+	public void recordsNothingOnFailure() {
+		final TestAnalysis analysis = new TestAnalysis();
+		assertNull(analysis.run(() -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals("", analysis.getOutput());
+	}
+
+	@Test
+	public void returnsPayload() {
+		final TestAnalysis analysis = new TestAnalysis();
+		final Analysis.Result<Integer> result = analysis.run(() -> 42);
+		assertEquals(42, result.payload);
+		assertNotNull(result.timeNeeded);
+		assertEquals("", analysis.getOutput());
+	}
+
+	@Test
+	public void cancelsMethodWhenInterrupted() {
+		final TestAnalysis analysis = new TestAnalysis();
+		final Thread thread = Thread.currentThread();
+		final boolean[] cancelled = { false };
+		assertNull(analysis.run(() -> {
+			thread.interrupt();
+			try {
+				Thread.sleep(10_000);
+			} catch (InterruptedException e) {
+				cancelled[0] = true;
+			}
+			return 42;
+		}, () -> System.out.println("aborted")));
+		assertEquals("aborted", analysis.getOutput());
+		assertTrue(cancelled[0]);
+		assertFalse(Thread.interrupted());
+	}
+}
@@ -0,0 +1,75 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+
+public class ApproximateModelCounterTest {
+
+	@Test
+	public void encodesXor() {
+		for (int k = 0; k <= 8; k++) {
+			for (final boolean parity : new boolean[] { false, true }) {
+				final List<Integer> literals = new ArrayList<>();
+				for (int i = 1; i <= k; i++) {
+					literals.add(i % 2 == 0 ? -i : i);
+				}
+				final int selector = k + 1;
+				final List<LiteralSet> clauses = new ArrayList<>();
+				final int variableCount = ApproximateModelCounter.encodeXor(literals, parity, selector, k + 2, clauses)
+					- 1;
+				final int[] counts = new int[1 << (k + 1)];
+				for (final int model : ModelCounterTest.getModels(variableCount, clauses.stream().map(
+					LiteralSet::getLiterals).toArray(int[][]::new))) {
+					counts[model & (counts.length - 1)]++;
+				}
+				for (int assignment = 0; assignment < counts.length; assignment++) {
+					int trueLiterals = 0;
+					for (final int literal : literals) {
+						trueLiterals += ((assignment >> (Math.abs(literal) - 1)) & 1) == (literal > 0 ? 1 : 0) ? 1 : 0;
+					}
+					final boolean selected = ((assignment >> k) & 1) == 1;
+					// the auxiliary variables are defined by the literals, so there is at most one extension
+					assertEquals(!selected || (trueLiterals % 2 == 1) == parity ? 1 : 0, counts[assignment]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void throwsOnSolverTimeout() {
+		final CNF cnf = new CNF(new Variables(List.of("a", "b", "c")), List.of(new LiteralSet(1, 2),
+			new LiteralSet(-1, 3)));
+		final ApproximateModelCounter counter = new ApproximateModelCounter(cnf, new int[] { 1, 2, 3 }, 0.8, 0.2,
+			new Random(0));
+		counter.setTimeout(0);
+		assertThrows(RuntimeTimeoutException.class, counter::count);
+	}
+}
@@ -0,0 +1,94 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+
+/**
+ * Solver for small CNFs that enumerates all assignments, so analyses can be
+ * tested without Sat4J.
+ */
+class BruteForceSatSolver extends EmptySatSolver {
+	private final CNF cnf;
+	private int[] solution;
+
+	BruteForceSatSolver(CNF cnf) {
+		super(cnf);
+		this.cnf = cnf;
+	}
+
+	private BruteForceSatSolver(BruteForceSatSolver oldSolver) {
+		super(oldSolver);
+		cnf = oldSolver.cnf;
+	}
+
+	@Override
+	public SatResult hasSolution() {
+		final int n = cnf.getVariables().size();
+		final int[] model = new int[n];
+		for (long bits = 0; bits < (1L << n); bits++) {
+			for (int i = 0; i < n; i++) {
+				model[i] = ((bits >> i) & 1) == 1 ? i + 1 : -(i + 1);
+			}
+			if (satisfies(model)) {
+				solution = model.clone();
+				return SatResult.TRUE;
+			}
+		}
+		return SatResult.FALSE;
+	}
+
+	private boolean satisfies(int[] model) {
+		for (int i = 0; i < assignment.size(); i++) {
+			final int literal = assignment.get(i);
+			if (model[Math.abs(literal) - 1] != literal) {
+				return false;
+			}
+		}
+		clauses: for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int literal : clause.getLiterals()) {
+				if (model[Math.abs(literal) - 1] == literal) {
+					continue clauses;
+				}
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int[] findSolution() {
+		return hasSolution() == SatResult.TRUE ? solution.clone() : null;
+	}
+
+	@Override
+	public int[] getSolution() {
+		return solution;
+	}
+
+	@Override
+	public BruteForceSatSolver clone() {
+		return new BruteForceSatSolver(this);
+	}
+}
@@ -0,0 +1,90 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DDNNFCompilerTest {
+	@TempDir
+	Path directory;
+
+	/**
+	 * Counts the assignments of the projected variables that extend to a model
+	 * and contain all given literals.
+	 */
+	private static long count(List<Integer> models, int[] projected, int... literals) {
+		final Set<Integer> projectedModels = new HashSet<>();
+		final int mask = Arrays.stream(projected).map(variable -> 1 << (variable - 1)).sum();
+		for (final int model : models) {
+			if (Arrays.stream(literals).allMatch(literal -> ((model >> (Math.abs(literal) - 1)) & 1) == (literal > 0
+				? 1 : 0))) {
+				projectedModels.add(model & mask);
+			}
+		}
+		return projectedModels.size();
+	}
+
+	@Test
+	public void matchesBruteForce() throws Exception {
+		final Random random = new Random(1);
+		for (int i = 0; i < 300; i++) {
+			final int n = 1 + random.nextInt(8);
+			final int[][] clauses = ModelCounterTest.getRandomClauses(random, n);
+			final int[] projected = random.ints(1, n + 1).limit(random.nextInt(n + 1)).distinct().sorted()
+				.toArray();
+			final List<Integer> models = ModelCounterTest.getModels(n, clauses);
+			final DDNNF ddnnf = new DDNNFCompiler(n, clauses, projected, random.nextBoolean() ? 0 : 1 << 20)
+				.compile();
+			final String message = Arrays.deepToString(clauses) + " projected onto " + Arrays.toString(projected);
+
+			assertEquals(BigInteger.valueOf(count(models, projected)), ddnnf.count(), message);
+			final BigInteger[] counts = ddnnf.countLiterals(0);
+			for (final int variable : projected) {
+				for (final int literal : new int[] { variable, -variable }) {
+					assertEquals(BigInteger.valueOf(count(models, projected, literal)), ddnnf.count(literal), message);
+					assertEquals(BigInteger.valueOf(count(models, projected, literal)), counts[literal + n], message);
+					final BigInteger[] conditionedCounts = ddnnf.countLiterals(literal);
+					for (final int other : projected) {
+						for (final int otherLiteral : new int[] { other, -other }) {
+							assertEquals(BigInteger.valueOf(count(models, projected, literal, otherLiteral)),
+								conditionedCounts[otherLiteral + n], message);
+						}
+					}
+				}
+			}
+
+			final Path path = directory.resolve(i + "." + DDNNF.SUFFIX);
+			ddnnf.write(path);
+			final DDNNF restored = DDNNF.read(path);
+			assertEquals(ddnnf.count(), restored.count(), message);
+			assertEquals(Arrays.asList(counts), Arrays.asList(restored.countLiterals(0)), message);
+		}
+	}
+}
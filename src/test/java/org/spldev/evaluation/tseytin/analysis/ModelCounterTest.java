@@ -0,0 +1,76 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+public class ModelCounterTest {
+	static int[][] getRandomClauses(Random random, int variableCount) {
+		final int[][] clauses = new int[random.nextInt(3 * variableCount)][];
+		for (int i = 0; i < clauses.length; i++) {
+			clauses[i] = random.ints(1 + random.nextInt(3), 1, variableCount + 1)
+				.map(variable -> random.nextBoolean() ? variable : -variable).distinct().toArray();
+		}
+		return clauses;
+	}
+
+	/**
+	 * Returns all models of the clauses as bit masks, in which bit i - 1 is the
+	 * value of variable i.
+	 */
+	static List<Integer> getModels(int variableCount, int[][] clauses) {
+		final List<Integer> models = new ArrayList<>();
+		for (int model = 0; model < (1 << variableCount); model++) {
+			final int assignment = model;
+			if (Arrays.stream(clauses).allMatch(clause -> Arrays.stream(clause).anyMatch(
+				literal -> ((assignment >> (Math.abs(literal) - 1)) & 1) == (literal > 0 ? 1 : 0)))) {
+				models.add(model);
+			}
+		}
+		return models;
+	}
+
+	@Test
+	public void matchesBruteForce() throws Exception {
+		final Random random = new Random(1);
+		for (int i = 0; i < 500; i++) {
+			final int variableCount = 1 + random.nextInt(12);
+			final int[][] clauses = getRandomClauses(random, variableCount);
+			final long cacheLimit = random.nextBoolean() ? 0 : 1 << 20;
+			assertEquals(BigInteger.valueOf(getModels(variableCount, clauses).size()), new ModelCounter(
+				variableCount, clauses, cacheLimit).count(), Arrays.deepToString(clauses));
+		}
+	}
+
+	@Test
+	public void countsEdgeCases() throws Exception {
+		assertEquals(BigInteger.ONE.shiftLeft(100), new ModelCounter(100, new int[0][], 0).count());
+		assertEquals(BigInteger.ZERO, new ModelCounter(3, new int[][] { { 1 }, { -1 } }, 0).count());
+		assertEquals(BigInteger.ZERO, new ModelCounter(3, new int[][] { {} }, 0).count());
+	}
+}
@@ -0,0 +1,123 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+
+public class ParallelAtomicSetAnalysisTest {
+
+	private static CNF getCNF() {
+		// a is core, b and c are equivalent, d is dead, e is free
+		return new CNF(new Variables(List.of("a", "b", "c", "d", "e")), List.of(new LiteralSet(1),
+			new LiteralSet(-2, 3), new LiteralSet(2, -3), new LiteralSet(-4)));
+	}
+
+	@Test
+	public void passesCoreDeadLiteralsToMonitor() throws Exception {
+		final CNF cnf = getCNF();
+		final List<LiteralSet> found = Collections.synchronizedList(new ArrayList<>());
+		final InterruptibleMonitor<List<LiteralSet>> monitor = new InterruptibleMonitor<>();
+		monitor.setIntermediateFunction(found::addAll);
+		new ParallelAtomicSetAnalysis(new BruteForceSatSolver(cnf), null, 2).analyze(monitor);
+		assertTrue(found.contains(new LiteralSet(1)), found.toString());
+		assertTrue(found.contains(new LiteralSet(-4)), found.toString());
+	}
+
+	private static Set<Set<Integer>> getVariables(List<LiteralSet> atomicSets) {
+		final Set<Set<Integer>> variables = new HashSet<>();
+		for (final LiteralSet atomicSet : atomicSets) {
+			final Set<Integer> set = new HashSet<>();
+			Arrays.stream(atomicSet.getLiterals()).forEach(literal -> set.add(Math.abs(literal)));
+			variables.add(set);
+		}
+		return variables;
+	}
+
+	@Test
+	public void findsAtomicSets() throws Exception {
+		final List<LiteralSet> atomicSets = new ParallelAtomicSetAnalysis(new BruteForceSatSolver(getCNF()), null, 2)
+			.analyze(new InterruptibleMonitor<>());
+		assertEquals(Set.of(Set.of(1, 4), Set.of(2, 3), Set.of(5)), getVariables(atomicSets));
+	}
+
+	@Test
+	public void matchesBruteForce() throws Exception {
+		final Random random = new Random(1);
+		final int n = 7;
+		for (int iteration = 0; iteration < 200; iteration++) {
+			final List<LiteralSet> clauses = new ArrayList<>();
+			for (int i = random.nextInt(8); i >= 0; i--) {
+				final int[] clause = random.ints(1 + random.nextInt(2), 1, n + 1)
+					.map(variable -> random.nextBoolean() ? variable : -variable).distinct().toArray();
+				clauses.add(new LiteralSet(clause));
+			}
+			final List<String> names = new ArrayList<>();
+			for (int i = 1; i <= n; i++) {
+				names.add("x" + i);
+			}
+			final CNF cnf = new CNF(new Variables(names), clauses);
+
+			// variables are in the same atomic set iff they relate to each other equally in all models
+			final List<boolean[]> models = new ArrayList<>();
+			for (int bits = 0; bits < (1 << n); bits++) {
+				final int model = bits;
+				if (clauses.stream().allMatch(clause -> Arrays.stream(clause.getLiterals())
+					.anyMatch(literal -> ((model >> (Math.abs(literal) - 1)) & 1) == (literal > 0 ? 1 : 0)))) {
+					final boolean[] values = new boolean[n + 1];
+					for (int i = 1; i <= n; i++) {
+						values[i] = ((model >> (i - 1)) & 1) == 1;
+					}
+					models.add(values);
+				}
+			}
+			final Set<Set<Integer>> expected = new HashSet<>();
+			if (!models.isEmpty()) {
+				final Set<Integer> coreDead = new HashSet<>();
+				final Map<String, Set<Integer>> groups = new LinkedHashMap<>();
+				for (int i = 1; i <= n; i++) {
+					final StringBuilder signature = new StringBuilder();
+					for (final boolean[] model : models) {
+						signature.append(model[i] == models.get(0)[i] ? '1' : '0');
+					}
+					if (signature.indexOf("0") < 0) {
+						coreDead.add(i);
+					} else {
+						groups.computeIfAbsent(signature.toString(), key -> new HashSet<>()).add(i);
+					}
+				}
+				expected.add(coreDead);
+				expected.addAll(groups.values());
+			}
+
+			final List<LiteralSet> atomicSets = new ParallelAtomicSetAnalysis(new BruteForceSatSolver(cnf), null,
+				1 + random.nextInt(3)).analyze(new InterruptibleMonitor<>());
+			assertEquals(expected, getVariables(atomicSets), clauses.toString());
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.*;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.*;
+
+public class ParallelCoreDeadAnalysisTest {
+
+	/**
+	 * Solver that finds a solution, but times out on every other query.
+	 */
+	private static class TimeoutSolver extends EmptySatSolver {
+		TimeoutSolver(CNF satInstance) {
+			super(satInstance);
+		}
+
+		TimeoutSolver(TimeoutSolver oldSolver) {
+			super(oldSolver);
+		}
+
+		@Override
+		public int[] findSolution() {
+			return new int[] { 1, 2 };
+		}
+
+		@Override
+		public SatResult hasSolution() {
+			return SatResult.TIMEOUT;
+		}
+
+		@Override
+		public TimeoutSolver clone() {
+			return new TimeoutSolver(this);
+		}
+	}
+
+	@Test
+	public void rethrowsSolverTimeout() {
+		final CNF cnf = new CNF(new Variables(List.of("a", "b")));
+		final ParallelCoreDeadAnalysis analysis = new ParallelCoreDeadAnalysis(new TimeoutSolver(cnf), null, 2);
+		assertThrows(RuntimeTimeoutException.class, () -> analysis.analyze(new InterruptibleMonitor<>()));
+	}
+}
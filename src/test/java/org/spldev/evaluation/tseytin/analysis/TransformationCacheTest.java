@@ -0,0 +1,77 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TransformationCacheTest {
+	@TempDir
+	Path directory;
+
+	private TransformationCache getCache(String settings) throws Exception {
+		final Path modelPath = directory.resolve("model.xml");
+		if (!Files.exists(modelPath)) {
+			Files.writeString(modelPath, "<model/>");
+		}
+		return new TransformationCache(directory.resolve("cache"), modelPath, "Tseytin", settings);
+	}
+
+	@Test
+	public void restoresStoredEntry() throws Exception {
+		final Path dimacs = directory.resolve("model.dimacs");
+		Files.writeString(dimacs, "p cnf 1 1\n1 0\n");
+		getCache("").store(Map.of("dimacs", dimacs), 42, 1, 1, new long[] { 3, 1, 0 });
+		Files.delete(dimacs);
+
+		final TransformationCache cache = getCache("");
+		assertTrue(cache.contains());
+		assertEquals(42, cache.getTime());
+		assertEquals(1, cache.getVariables());
+		assertEquals(1, cache.getClauses());
+		assertArrayEquals(new long[] { 3, 1, 0 }, cache.getPreprocessing());
+		cache.restore(Map.of("dimacs", dimacs));
+		assertEquals("p cnf 1 1\n1 0\n", Files.readString(dimacs));
+		assertFalse(getCache("other").contains());
+	}
+
+	@Test
+	public void restoredFilesDoNotAliasCache() throws Exception {
+		final Path dimacs = directory.resolve("model.dimacs");
+		Files.writeString(dimacs, "p cnf 1 1\n1 0\n");
+		getCache("").store(Map.of("dimacs", dimacs), 42, 1, 1, null);
+
+		final TransformationCache cache = getCache("");
+		cache.restore(Map.of("dimacs", dimacs));
+		Files.writeString(dimacs, "overwritten");
+		final Path restored = directory.resolve("restored.dimacs");
+		cache.restore(Map.of("dimacs", restored));
+		assertEquals("p cnf 1 1\n1 0\n", Files.readString(restored));
+		assertNull(cache.getPreprocessing());
+	}
+}
@@ -0,0 +1,81 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinaryCNFFormatTest {
+	@TempDir
+	Path directory;
+
+	static ClauseArena getRandomArena(Random random, int variableCount, int clauseCount) {
+		final ClauseArena arena = new ClauseArena(1, 1);
+		for (int i = 1; i <= variableCount; i++) {
+			arena.addVariable(i % 3 == 0 ? "feature " + i : i % 3 == 1 ? "__temp__" + i : "\u00e4" + i);
+		}
+		for (int i = 0; i < clauseCount; i++) {
+			arena.addClause(random.ints(random.nextInt(6), 1, variableCount + 1)
+				.map(variable -> random.nextBoolean() ? variable : -variable).toArray());
+		}
+		return arena;
+	}
+
+	static void assertArenaEquals(ClauseArena expected, ClauseArena actual) {
+		assertEquals(expected.getNames(), actual.getNames());
+		assertEquals(expected.getClauseCount(), actual.getClauseCount());
+		for (int i = 0; i < expected.getClauseCount(); i++) {
+			assertArrayEquals(expected.getClause(i), actual.getClause(i));
+		}
+	}
+
+	@Test
+	public void roundTrips() throws Exception {
+		final ClauseArena arena = getRandomArena(new Random(1), 100_000, 50_000);
+		for (final boolean compress : new boolean[] { false, true }) {
+			final Path path = directory.resolve(compress + "." + BinaryCNFFormat.SUFFIX);
+			BinaryCNFFormat.write(arena, path, compress);
+			assertArenaEquals(arena, BinaryCNFFormat.read(path));
+		}
+	}
+
+	@Test
+	public void roundTripsEmptyArena() throws Exception {
+		final Path path = directory.resolve("empty." + BinaryCNFFormat.SUFFIX);
+		BinaryCNFFormat.write(new ClauseArena(), path, true);
+		assertArenaEquals(new ClauseArena(), BinaryCNFFormat.read(path));
+	}
+
+	@Test
+	public void rejectsOtherFiles() throws Exception {
+		final Path path = directory.resolve("model.dimacs");
+		Files.writeString(path, "p cnf 1 1\n1 0\n");
+		assertThrows(IOException.class, () -> BinaryCNFFormat.read(path));
+	}
+}
@@ -0,0 +1,149 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+/**
+ * Evaluates small formulas and CNFs by enumerating all assignments.
+ */
+class BruteForce {
+	static final List<String> NAMES = List.of("a", "b", "c", "d");
+
+	static Formula getRandomFormula(Random random, int depth) {
+		final VariableMap variables = VariableMap.fromNames(NAMES);
+		final List<Formula> constraints = new ArrayList<>();
+		for (int i = random.nextInt(3); i >= 0; i--) {
+			constraints.add(getRandomFormula(random, variables, depth));
+		}
+		return new And(constraints);
+	}
+
+	private static Formula getRandomFormula(Random random, VariableMap variables, int depth) {
+		if (depth == 0 || random.nextInt(4) == 0) {
+			final Literal literal = variables.createLiteral(NAMES.get(random.nextInt(NAMES.size())));
+			return random.nextBoolean() ? literal : literal.flip();
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new And(getRandomFormula(random, variables, depth - 1), getRandomFormula(random, variables,
+				depth - 1));
+		case 1:
+			return new Or(getRandomFormula(random, variables, depth - 1), getRandomFormula(random, variables,
+				depth - 1));
+		case 2:
+			return new Not(getRandomFormula(random, variables, depth - 1));
+		case 3:
+			return new Implies(getRandomFormula(random, variables, depth - 1), getRandomFormula(random, variables,
+				depth - 1));
+		default:
+			return new Biimplies(getRandomFormula(random, variables, depth - 1), getRandomFormula(random,
+				variables, depth - 1));
+		}
+	}
+
+	/**
+	 * Evaluates the formula under the assignment of {@link #NAMES} given as bit
+	 * mask.
+	 */
+	static boolean evaluate(Formula formula, int assignment) {
+		final List<? extends Formula> children = formula.getChildren();
+		if (formula instanceof Literal) {
+			final boolean value = ((assignment >> NAMES.indexOf(formula.getName())) & 1) == 1;
+			return value == ((Literal) formula).isPositive();
+		} else if (formula instanceof And) {
+			return children.stream().allMatch(child -> evaluate(child, assignment));
+		} else if (formula instanceof Or) {
+			return children.stream().anyMatch(child -> evaluate(child, assignment));
+		} else if (formula instanceof Not) {
+			return !evaluate(children.get(0), assignment);
+		} else if (formula instanceof Implies) {
+			return !evaluate(children.get(0), assignment) || evaluate(children.get(1), assignment);
+		} else if (formula instanceof Biimplies) {
+			return evaluate(children.get(0), assignment) == evaluate(children.get(1), assignment);
+		}
+		throw new IllegalArgumentException(formula.toString());
+	}
+
+	/**
+	 * Returns, for each assignment of {@link #NAMES} given as bit mask, the
+	 * number of assignments of the arena's other variables that satisfy all of
+	 * its clauses, or null if there are too many other variables.
+	 */
+	static long[] countExtensions(ClauseArena arena) {
+		final int[] bits = new int[arena.getVariableCount() + 1];
+		int otherCount = 0;
+		for (int variable = 1; variable <= arena.getVariableCount(); variable++) {
+			final int index = NAMES.indexOf(arena.getName(variable));
+			bits[variable] = index >= 0 ? index : NAMES.size() + otherCount++;
+		}
+		if (otherCount > 16) {
+			return null;
+		}
+		final long[] counts = new long[1 << NAMES.size()];
+		for (int assignment = 0; assignment < (1 << (NAMES.size() + otherCount)); assignment++) {
+			if (satisfies(arena, bits, assignment)) {
+				counts[assignment & (counts.length - 1)]++;
+			}
+		}
+		return counts;
+	}
+
+	private static boolean satisfies(ClauseArena arena, int[] bits, int assignment) {
+		for (int i = 0; i < arena.getClauseCount(); i++) {
+			boolean satisfied = false;
+			for (int j = arena.getClauseStart(i); j < arena.getClauseEnd(i) && !satisfied; j++) {
+				final int literal = arena.getLiteral(j);
+				satisfied = ((assignment >> bits[Math.abs(literal)]) & 1) == (literal > 0 ? 1 : 0);
+			}
+			if (!satisfied) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Asserts that each model of the formula has exactly one extension to a model
+	 * of the arena, and each other assignment none, so the encoding preserves the
+	 * model count.
+	 *
+	 * @return whether the arena was small enough to be checked
+	 */
+	static boolean assertEquivalent(Formula formula, ClauseArena arena) {
+		final long[] counts = countExtensions(arena);
+		if (counts == null) {
+			return false;
+		}
+		for (int assignment = 0; assignment < counts.length; assignment++) {
+			if (counts[assignment] != (evaluate(formula, assignment) ? 1 : 0)) {
+				throw new AssertionError(formula + " has " + counts[assignment] + " extensions for " + assignment);
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,80 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+
+public class CNFPreprocessorTest {
+	@Test
+	public void preservesModelCountOfTseytinEncoding() {
+		final Random random = new Random(1);
+		int eliminated = 0;
+		for (int i = 0; i < 500; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			final ClauseArena arena = new TseytinEncoder().encode(formula);
+			final ClauseArena preprocessed = new CNFPreprocessor(arena).preprocess();
+			BruteForce.assertEquivalent(formula, preprocessed);
+			if (preprocessed.getVariableCount() < arena.getVariableCount()) {
+				eliminated++;
+			}
+		}
+		assertTrue(eliminated > 0);
+	}
+
+	@Test
+	public void preservesSatisfiabilityOfPlaistedGreenbaumEncoding() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 500; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			final long[] counts = BruteForce.countExtensions(new CNFPreprocessor(new PlaistedGreenbaumEncoder()
+				.encode(formula)).preprocess());
+			if (counts != null) {
+				for (int assignment = 0; assignment < counts.length; assignment++) {
+					assertEquals(BruteForce.evaluate(formula, assignment), counts[assignment] > 0, formula.toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void keepsUnitsOfFeatures() {
+		final ClauseArena arena = new ClauseArena();
+		final int a = arena.addVariable("a"), b = arena.addVariable("b");
+		final int auxiliary = arena.addVariable(TseytinEncoder.AUXILIARY_PREFIX + 0);
+		arena.addClause(auxiliary);
+		arena.addClause(-auxiliary, a);
+		arena.addClause(-a, b);
+		final ClauseArena preprocessed = new CNFPreprocessor(arena).preprocess();
+		final long[] counts = BruteForce.countExtensions(preprocessed);
+		// c and d do not occur, so only a and b are constrained
+		for (int assignment = 0; assignment < counts.length; assignment++) {
+			assertEquals((assignment & 0b11) == 0b11 ? 1 : 0, counts[assignment]);
+		}
+		assertEquals(-1, preprocessed.getNames().indexOf(TseytinEncoder.AUXILIARY_PREFIX + 0));
+	}
+}
@@ -0,0 +1,72 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+public class CNFSizeEstimatorTest {
+	private final VariableMap variables = VariableMap.fromNames(BruteForce.NAMES);
+	private final Literal a = variables.createLiteral("a");
+	private final Literal b = variables.createLiteral("b");
+	private final Literal c = variables.createLiteral("c");
+	private final Literal d = variables.createLiteral("d");
+
+	@Test
+	public void estimatesDistribution() {
+		final CNFSizeEstimator estimator = new CNFSizeEstimator(Long.MAX_VALUE);
+		assertEquals(4, estimator.estimate(new Or(new And(a, b), new And(c, d)), true));
+		assertEquals(2, estimator.estimate(new Or(new And(a, b), new And(c, d)), false));
+		assertEquals(2, estimator.estimate(new Not(new Or(a, b)), true));
+		assertEquals(2, estimator.estimate(new Biimplies(a, b), true));
+		// distributing (a & -b) | (-a & b) yields two tautologies, which are counted as well
+		assertEquals(4, estimator.estimate(new Biimplies(a, b), false));
+	}
+
+	@Test
+	public void saturatesAtMaximum() {
+		Formula formula = new Or(new And(a, b), new And(c, d));
+		for (int i = 0; i < 100; i++) {
+			formula = new Or(formula, new And(a, b, c, d));
+		}
+		assertEquals(1000, new CNFSizeEstimator(1000).estimate(formula, true));
+	}
+
+	@Test
+	public void boundsDistributedClauseCount() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 500; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			final ClauseArena arena = new HybridEncoder(Long.MAX_VALUE).encode(formula);
+			assertTrue(arena.getVariableCount() <= BruteForce.NAMES.size());
+			assertTrue(arena.getClauseCount() <= new CNFSizeEstimator(Long.MAX_VALUE).estimate(formula, true),
+				formula.toString());
+		}
+	}
+}
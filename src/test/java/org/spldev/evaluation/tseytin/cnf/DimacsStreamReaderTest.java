@@ -0,0 +1,55 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DimacsStreamReaderTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void roundTrips() throws Exception {
+		final ClauseArena arena = BinaryCNFFormatTest.getRandomArena(new Random(1), 100_000, 50_000);
+		final Path path = directory.resolve("model.dimacs");
+		DimacsStreamWriter.write(arena, path);
+		BinaryCNFFormatTest.assertArenaEquals(arena, DimacsStreamReader.read(path));
+	}
+
+	@Test
+	public void readsHandwrittenDimacs() throws Exception {
+		final Path path = directory.resolve("model.dimacs");
+		Files.writeString(path, "c comment\r\nc 1 feature a\r\nc 3 c\r\np cnf 4 2\r\n1 -3\r\n 0 -4 2 0\r\n");
+		final ClauseArena arena = DimacsStreamReader.read(path);
+		assertEquals(List.of("feature a", "2", "c", "4"), arena.getNames());
+		assertEquals(2, arena.getClauseCount());
+		assertArrayEquals(new int[] { 1, -3 }, arena.getClause(0));
+		assertArrayEquals(new int[] { -4, 2 }, arena.getClause(1));
+	}
+}
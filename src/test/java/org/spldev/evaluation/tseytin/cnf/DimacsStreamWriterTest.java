@@ -0,0 +1,69 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.*;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DimacsStreamWriterTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void writesDimacs() throws Exception {
+		final ClauseArena arena = new ClauseArena();
+		arena.addVariable("a");
+		arena.addVariable("feature b");
+		arena.addClause(1, -2);
+		arena.addClause(-1);
+		arena.addClause();
+		final Path path = directory.resolve("model.dimacs");
+		DimacsStreamWriter.write(arena, path);
+		assertEquals("c 1 a\nc 2 feature b\np cnf 2 3\n1 -2 0\n-1 0\n0\n", Files.readString(path));
+	}
+
+	@Test
+	public void writesBeyondBuffer() throws Exception {
+		final ClauseArena arena = BinaryCNFFormatTest.getRandomArena(new Random(1), 100_000, 50_000);
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 1; i <= arena.getVariableCount(); i++) {
+			expected.append("c ").append(i).append(' ').append(arena.getName(i)).append('\n');
+		}
+		expected.append("p cnf ").append(arena.getVariableCount()).append(' ').append(arena.getClauseCount())
+			.append('\n');
+		for (int i = 0; i < arena.getClauseCount(); i++) {
+			for (final int literal : arena.getClause(i)) {
+				expected.append(literal).append(' ');
+			}
+			expected.append("0\n");
+		}
+		final Path path = directory.resolve("model.dimacs");
+		DimacsStreamWriter.write(arena, path);
+		assertEquals(expected.toString(), Files.readString(path));
+	}
+}
@@ -0,0 +1,97 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.atomic.literal.*;
+import org.spldev.formula.structure.compound.*;
+
+public class HybridEncoderTest {
+	private final VariableMap variables = VariableMap.fromNames(List.of("a", "b", "c"));
+	private final Literal a = variables.createLiteral("a");
+	private final Literal b = variables.createLiteral("b");
+	private final Literal c = variables.createLiteral("c");
+
+	@Test
+	public void encodesEachConstraintSeparately() {
+		final List<Integer> clauseCounts = new ArrayList<>();
+		final HybridEncoder encoder = new HybridEncoder(16) {
+			@Override
+			protected void checkCancelled() {
+				if (arena != null) {
+					clauseCounts.add(arena.getClauseCount());
+				}
+				super.checkCancelled();
+			}
+		};
+		final ClauseArena arena = encoder.encode(new And(a, new Or(b, c), new Implies(a, c)));
+		// cancellation is checked before each constraint, after the previous one has been added
+		assertTrue(clauseCounts.containsAll(List.of(0, 1, 2)), clauseCounts.toString());
+		assertEquals(3, arena.getClauseCount());
+	}
+
+	@Test
+	public void stopsBetweenConstraints() {
+		final HybridEncoder encoder = new HybridEncoder(16) {
+			@Override
+			protected void checkCancelled() {
+				if (arena.getClauseCount() == 1) {
+					Thread.currentThread().interrupt();
+				}
+				super.checkCancelled();
+			}
+		};
+		try {
+			assertThrows(CancellationException.class, () -> encoder.encode(new And(a, new Or(b, c),
+				new Implies(a, c))));
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	public void preservesModelCount() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 300; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			for (final long clauseLimit : new long[] { 1, 4, 16, Long.MAX_VALUE }) {
+				BruteForce.assertEquivalent(formula, new HybridEncoder(clauseLimit).encode(formula));
+			}
+		}
+	}
+
+	@Test
+	public void distributesWithinLimit() {
+		final Formula formula = new Or(new And(a, b), new And(b, c));
+		final ClauseArena arena = new HybridEncoder(4).encode(formula);
+		assertEquals(3, arena.getVariableCount());
+		assertEquals(4, arena.getClauseCount());
+		assertTrue(new HybridEncoder(3).encode(formula).getVariableCount() > 3);
+	}
+}
@@ -0,0 +1,54 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.compound.*;
+
+public class ParallelTseytinEncoderTest {
+	@Test
+	public void preservesModelCount() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			BruteForce.assertEquivalent(formula, new ParallelTseytinEncoder(1 + random.nextInt(4)).encode(formula));
+		}
+	}
+
+	@Test
+	public void matchesSequentialEncoding() {
+		final Random random = new Random(1);
+		final List<Formula> constraints = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			constraints.addAll(BruteForce.getRandomFormula(random, 4).getChildren());
+		}
+		final Formula formula = new And(constraints);
+		final ClauseArena expected = new TseytinEncoder().encode(formula);
+		for (final int threads : new int[] { 1, 2, 3, 8 }) {
+			BinaryCNFFormatTest.assertArenaEquals(expected, new ParallelTseytinEncoder(threads).encode(formula));
+		}
+	}
+}
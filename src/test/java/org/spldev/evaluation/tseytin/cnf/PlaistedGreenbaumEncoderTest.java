@@ -0,0 +1,52 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+
+public class PlaistedGreenbaumEncoderTest {
+	@Test
+	public void isEquisatisfiable() {
+		final Random random = new Random(1);
+		int checked = 0;
+		for (int i = 0; i < 500; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			final ClauseArena arena = new PlaistedGreenbaumEncoder().encode(formula);
+			final long[] counts = BruteForce.countExtensions(arena);
+			if (counts != null) {
+				// each assignment of the features extends to a model iff it satisfies the formula
+				for (int assignment = 0; assignment < counts.length; assignment++) {
+					assertEquals(BruteForce.evaluate(formula, assignment), counts[assignment] > 0, formula.toString());
+				}
+				checked++;
+			}
+			assertTrue(arena.getClauseCount() <= new TseytinEncoder().encode(formula).getClauseCount());
+		}
+		assertTrue(checked > 450, checked + " formulas checked");
+	}
+}
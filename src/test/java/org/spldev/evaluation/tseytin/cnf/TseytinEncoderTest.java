@@ -0,0 +1,57 @@
+/* -----------------------------------------------------------------------------
+ * Evaluation-Tseytin - Program for the evaluation of the Tseytin transformation.
+ * Copyright (C) 2021  Sebastian Krieter, Elias Kuiter
+ * 
+ * This file is part of Evaluation-Tseytin.
+ * 
+ * Evaluation-Tseytin is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License,
+ * or (at your option) any later version.
+ * 
+ * Evaluation-Tseytin is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Evaluation-Tseytin.  If not, see <https://www.gnu.org/licenses/>.
+ * 
+ * See <https://github.com/ekuiter/evaluation-tseytin> for further information.
+ * -----------------------------------------------------------------------------
+ */
+package org.spldev.evaluation.tseytin.cnf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+import org.spldev.formula.structure.*;
+import org.spldev.formula.structure.compound.*;
+
+public class TseytinEncoderTest {
+	@Test
+	public void preservesModelCount() {
+		final Random random = new Random(1);
+		int checked = 0;
+		for (int i = 0; i < 500; i++) {
+			final Formula formula = BruteForce.getRandomFormula(random, 3);
+			for (final boolean structuralHashing : new boolean[] { false, true }) {
+				if (BruteForce.assertEquivalent(formula, new TseytinEncoder().setStructuralHashing(
+					structuralHashing).encode(formula))) {
+					checked++;
+				}
+			}
+		}
+		assertTrue(checked > 900, checked + " formulas checked");
+	}
+
+	@Test
+	public void sharesEqualSubformulas() {
+		final Formula formula = BruteForce.getRandomFormula(new Random(1), 3);
+		final Formula duplicated = new And(new Or(formula, formula), new Or(formula, formula));
+		assertTrue(new TseytinEncoder().setStructuralHashing(true).encode(duplicated).getVariableCount()
+			< new TseytinEncoder().encode(duplicated).getVariableCount());
+	}
+}